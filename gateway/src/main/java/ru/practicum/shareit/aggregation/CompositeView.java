@@ -0,0 +1,39 @@
+package ru.practicum.shareit.aggregation;
+
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Declares the sections of a composite response. Sections run concurrently unless one depends on another, which must
+ * be declared before it.
+ */
+@Getter
+public final class CompositeView<C> {
+    private final String name;
+    private final List<Section<C>> sections;
+
+    private CompositeView(String name, List<Section<C>> sections) {
+        this.name = name;
+        this.sections = sections;
+    }
+
+    @SafeVarargs
+    public static <C> CompositeView<C> of(String name, Section<C>... sections) {
+        Set<String> declared = new HashSet<>();
+        for (Section<C> section : sections) {
+            for (String dependency : section.getDependsOn()) {
+                if (!declared.contains(dependency)) {
+                    throw new IllegalArgumentException(String.format("Секция %s в %s зависит от необъявленной ранее секции %s",
+                            section.getName(), name, dependency));
+                }
+            }
+            if (!declared.add(section.getName())) {
+                throw new IllegalArgumentException(String.format("Секция %s в %s объявлена дважды", section.getName(), name));
+            }
+        }
+        return new CompositeView<>(name, List.of(sections));
+    }
+}
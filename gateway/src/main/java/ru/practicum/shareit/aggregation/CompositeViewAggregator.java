@@ -0,0 +1,178 @@
+package ru.practicum.shareit.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Renders a composite view: starts every section as soon as the sections it depends on are done and puts their
+ * bodies under their names. A failed optional section is left null and reported under "errors", a failed required
+ * one fails the whole response the way the standalone call would.
+ */
+@Slf4j
+@Service
+public class CompositeViewAggregator {
+    static final String ERRORS = "errors";
+
+    private final ObjectMapper mapper;
+
+    public CompositeViewAggregator(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public <C> CompletableFuture<ResponseEntity<Object>> render(CompositeView<C> view, C context) {
+        RequestAttributes attributes = sectionAttributes();
+        Map<String, CompletableFuture<SectionResult>> results = new LinkedHashMap<>();
+        for (Section<C> section : view.getSections()) {
+            List<CompletableFuture<SectionResult>> dependencies = section.getDependsOn().stream()
+                    .map(results::get)
+                    .collect(Collectors.toList());
+            CompletableFuture<SectionResult> result = dependencies.isEmpty()
+                    ? fetch(section, context, Map.of(), attributes)
+                    : CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                    .thenCompose(ignored -> fetchAfter(section, context, results, attributes));
+            results.put(section.getName(), result);
+        }
+        return CompletableFuture.allOf(results.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> assemble(view, results));
+    }
+
+    private <C> CompletableFuture<SectionResult> fetchAfter(Section<C> section, C context,
+                                                            Map<String, CompletableFuture<SectionResult>> results,
+                                                            RequestAttributes attributes) {
+        Map<String, JsonNode> bodies = new LinkedHashMap<>();
+        for (String dependency : section.getDependsOn()) {
+            SectionResult result = results.get(dependency).join();
+            if (!result.isSuccessful()) {
+                return CompletableFuture.completedFuture(new SectionResult(HttpStatus.FAILED_DEPENDENCY.value(),
+                        TextNode.valueOf("Не загружена секция " + dependency), null));
+            }
+            bodies.put(dependency, result.getBody());
+        }
+        return fetch(section, context, bodies, attributes);
+    }
+
+    private <C> CompletableFuture<SectionResult> fetch(Section<C> section, C context, Map<String, JsonNode> dependencies,
+                                                       @Nullable RequestAttributes attributes) {
+        CompletableFuture<ResponseEntity<Object>> call;
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            call = section.getFetcher().fetch(context, dependencies);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        } finally {
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+        if (call == null) {
+            return CompletableFuture.completedFuture(new SectionResult(HttpStatus.OK.value(), null, null));
+        }
+        return call.handle((response, e) -> {
+            if (e != null) {
+                Throwable cause = unwrap(e);
+                log.info("Ошибка загрузки секции {}: {}", section.getName(), cause.toString());
+                return new SectionResult(statusOf(cause).value(),
+                        TextNode.valueOf(String.valueOf(cause.getMessage())), cause);
+            }
+            return new SectionResult(response.getStatusCodeValue(), toJson(response.getBody()), null);
+        });
+    }
+
+    private <C> ResponseEntity<Object> assemble(CompositeView<C> view, Map<String, CompletableFuture<SectionResult>> results) {
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode errors = mapper.createObjectNode();
+        for (Section<C> section : view.getSections()) {
+            SectionResult result = results.get(section.getName()).join();
+            if (result.isSuccessful()) {
+                root.set(section.getName(), result.getBody());
+                continue;
+            }
+            if (section.isRequired()) {
+                if (result.getFailure() != null) {
+                    throw new CompletionException(result.getFailure());
+                }
+                return ResponseEntity.status(result.getStatus()).body(result.getBody());
+            }
+            root.putNull(section.getName());
+            ObjectNode error = errors.putObject(section.getName());
+            error.put("status", result.getStatus());
+            error.set("error", result.getBody());
+        }
+        if (!errors.isEmpty()) {
+            log.info("Представление {} собрано частично, ошибки в секциях: {}", view.getName(), errors.fieldNames());
+            root.set(ERRORS, errors);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(root);
+    }
+
+    private JsonNode toJson(@Nullable Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof byte[] || body instanceof String) {
+            byte[] bytes = body instanceof byte[] ? (byte[]) body : ((String) body).getBytes(StandardCharsets.UTF_8);
+            if (bytes.length == 0) {
+                return null;
+            }
+            try {
+                return mapper.readTree(bytes);
+            } catch (IOException e) {
+                return TextNode.valueOf(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+        return mapper.valueToTree(body);
+    }
+
+    @Nullable
+    private static RequestAttributes sectionAttributes() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return new ServletRequestAttributes(new SectionRequest(((ServletRequestAttributes) attributes).getRequest()));
+        }
+        return attributes;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static HttpStatus statusOf(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException
+                || e instanceof RejectedExecutionException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return HttpStatus.BAD_GATEWAY;
+    }
+}
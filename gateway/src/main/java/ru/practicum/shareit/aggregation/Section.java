@@ -0,0 +1,41 @@
+package ru.practicum.shareit.aggregation;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One part of a composite view, filled from a single upstream call.
+ */
+@Getter
+public class Section<C> {
+    private final String name;
+    private final List<String> dependsOn;
+    private final SectionFetcher<C> fetcher;
+    private final boolean required;
+
+    private Section(String name, List<String> dependsOn, SectionFetcher<C> fetcher, boolean required) {
+        this.name = name;
+        this.dependsOn = dependsOn;
+        this.fetcher = fetcher;
+        this.required = required;
+    }
+
+    public static <C> Section<C> of(String name, SectionFetcher<C> fetcher) {
+        return new Section<>(name, List.of(), fetcher, false);
+    }
+
+    /**
+     * Runs the section after the given ones, which then also must not fail for it to be fetched.
+     */
+    public Section<C> dependsOn(String... names) {
+        return new Section<>(name, List.of(names), fetcher, required);
+    }
+
+    /**
+     * Fails the whole view with the section's own error instead of reporting it next to the other sections.
+     */
+    public Section<C> required() {
+        return new Section<>(name, dependsOn, fetcher, true);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@FunctionalInterface
+public interface SectionFetcher<C> {
+
+    /**
+     * Starts the upstream call of a section.
+     *
+     * @param dependencies bodies of the sections this one depends on, by name
+     * @return the call, or null if the section has nothing to show for this context
+     */
+    @Nullable
+    CompletableFuture<ResponseEntity<Object>> fetch(C context, Map<String, JsonNode> dependencies);
+}
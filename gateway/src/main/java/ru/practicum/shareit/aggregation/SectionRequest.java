@@ -0,0 +1,45 @@
+package ru.practicum.shareit.aggregation;
+
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The client request as seen by the calls of the sections: its attributes (trace, deadline) are shared, but headers
+ * meant for the composite response as a whole are not forwarded to every section call.
+ */
+class SectionRequest extends HttpServletRequestWrapper {
+    private static final Set<String> HIDDEN_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HIDDEN_HEADERS.addAll(Set.of(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.IF_NONE_MATCH,
+                HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_MATCH, HttpHeaders.IF_UNMODIFIED_SINCE));
+    }
+
+    SectionRequest(HttpServletRequest request) {
+        super(request);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return HIDDEN_HEADERS.contains(name) ? null : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return HIDDEN_HEADERS.contains(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !HIDDEN_HEADERS.contains(name))
+                .collect(Collectors.toList()));
+    }
+}
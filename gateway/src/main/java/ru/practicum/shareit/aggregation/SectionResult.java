@@ -0,0 +1,18 @@
+package ru.practicum.shareit.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+@Value
+class SectionResult {
+    int status;
+    @Nullable
+    JsonNode body;
+    @Nullable
+    Throwable failure;
+
+    boolean isSuccessful() {
+        return failure == null && status >= 200 && status < 300;
+    }
+}
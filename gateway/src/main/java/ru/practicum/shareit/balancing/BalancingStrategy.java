@@ -0,0 +1,6 @@
+package ru.practicum.shareit.balancing;
+
+public enum BalancingStrategy {
+    LEAST_OUTSTANDING,
+    POWER_OF_TWO_CHOICES
+}
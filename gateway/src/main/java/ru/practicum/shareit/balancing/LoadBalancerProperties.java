@@ -0,0 +1,19 @@
+package ru.practicum.shareit.balancing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.balancing")
+public class LoadBalancerProperties {
+    private BalancingStrategy strategy = BalancingStrategy.LEAST_OUTSTANDING;
+    private int consecutiveFailures = 5;
+    private Duration slowCallThreshold = Duration.ofSeconds(2);
+    private int maxEjectionPercent = 50;
+    private String healthPath = "/actuator/health";
+    private Duration probeInterval = Duration.ofSeconds(5);
+}
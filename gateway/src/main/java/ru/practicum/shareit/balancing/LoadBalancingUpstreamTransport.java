@@ -0,0 +1,190 @@
+package ru.practicum.shareit.balancing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads calls over several shareit-server instances. An instance that keeps failing or answering slowly is taken
+ * out of rotation and comes back once its health endpoint answers again.
+ */
+@Slf4j
+public class LoadBalancingUpstreamTransport implements UpstreamTransport, DisposableBean {
+    public static final String REQUESTS_METRIC = "shareit.gateway.upstream.requests";
+    public static final String OUTSTANDING_METRIC = "shareit.gateway.upstream.outstanding";
+    public static final String HEALTHY_METRIC = "shareit.gateway.upstream.healthy";
+    public static final String EJECTIONS_METRIC = "shareit.gateway.upstream.ejections";
+
+    private final ServerInstance[] instances;
+    private final LoadBalancerProperties properties;
+    private final ScheduledExecutorService prober;
+
+    public LoadBalancingUpstreamTransport(List<String> urls, Function<String, UpstreamTransport> transportFactory,
+                                          LoadBalancerProperties properties, MeterRegistry registry) {
+        this.instances = urls.stream()
+                .map(url -> new ServerInstance(url, transportFactory.apply(url), registry))
+                .toArray(ServerInstance[]::new);
+        this.properties = properties;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("upstream-prober-");
+        threadFactory.setDaemon(true);
+        this.prober = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = properties.getProbeInterval().toMillis();
+        prober.scheduleWithFixedDelay(this::probeEjected, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A single URL needs no balancing, so its transport is used as is.
+     */
+    public static UpstreamTransport of(List<String> urls, Function<String, UpstreamTransport> transportFactory,
+                                       LoadBalancerProperties properties, MeterRegistry registry) {
+        if (urls.size() == 1) {
+            return transportFactory.apply(urls.get(0));
+        }
+        return new LoadBalancingUpstreamTransport(urls, transportFactory, properties, registry);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(UpstreamRequest request) {
+        ServerInstance instance = choose();
+        instance.onStart();
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<byte[]>> call;
+        try {
+            call = instance.getTransport().exchange(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((response, e) -> {
+            long duration = System.nanoTime() - start;
+            if (e != null || response.getStatusCode().is5xxServerError()) {
+                instance.onFailure(duration);
+            } else {
+                instance.onSuccess(duration, properties.getSlowCallThreshold().toNanos());
+            }
+            if (instance.getConsecutiveFailures() >= properties.getConsecutiveFailures()) {
+                tryEject(instance);
+            }
+        });
+    }
+
+    public List<String> getHealthyUrls() {
+        return Arrays.stream(instances)
+                .filter(instance -> !instance.isEjected())
+                .map(ServerInstance::getUrl)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroy() {
+        prober.shutdownNow();
+    }
+
+    private ServerInstance choose() {
+        int healthy = 0;
+        for (ServerInstance instance : instances) {
+            if (!instance.isEjected()) {
+                healthy++;
+            }
+        }
+        // With every instance ejected it is better to keep trying all of them than to fail every call
+        boolean panic = healthy == 0;
+        int candidates = panic ? instances.length : healthy;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (properties.getStrategy() == BalancingStrategy.POWER_OF_TWO_CHOICES && candidates > 1) {
+            int first = random.nextInt(candidates);
+            int second = random.nextInt(candidates - 1);
+            if (second >= first) {
+                second++;
+            }
+            ServerInstance a = candidate(first, panic);
+            ServerInstance b = candidate(second, panic);
+            return b.getOutstanding() < a.getOutstanding() ? b : a;
+        }
+
+        // Starting from a random offset spreads ties instead of always picking the first idle instance
+        int offset = random.nextInt(instances.length);
+        ServerInstance best = null;
+        for (int i = 0; i < instances.length; i++) {
+            ServerInstance instance = instances[(offset + i) % instances.length];
+            if ((panic || !instance.isEjected())
+                    && (best == null || instance.getOutstanding() < best.getOutstanding())) {
+                best = instance;
+            }
+        }
+        return best;
+    }
+
+    private ServerInstance candidate(int index, boolean panic) {
+        int seen = 0;
+        for (ServerInstance instance : instances) {
+            if (panic || !instance.isEjected()) {
+                if (seen++ == index) {
+                    return instance;
+                }
+            }
+        }
+        return instances[0];
+    }
+
+    private synchronized void tryEject(ServerInstance instance) {
+        if (instance.isEjected()) {
+            return;
+        }
+        long ejected = Arrays.stream(instances).filter(ServerInstance::isEjected).count();
+        if ((ejected + 1) * 100 > (long) properties.getMaxEjectionPercent() * instances.length) {
+            return;
+        }
+        if (instance.eject()) {
+            log.warn("Инстанс shareit-server {} исключён из балансировки после {} неудачных или медленных ответов подряд",
+                    instance.getUrl(), instance.getConsecutiveFailures());
+        }
+    }
+
+    private void probeEjected() {
+        for (ServerInstance instance : instances) {
+            if (instance.isEjected() && isHealthy(instance)) {
+                instance.reinstate();
+                log.info("Инстанс shareit-server {} снова доступен и возвращён в балансировку", instance.getUrl());
+            }
+        }
+    }
+
+    private boolean isHealthy(ServerInstance instance) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        UpstreamRequest probe = UpstreamRequest.builder()
+                .prefix(properties.getHealthPath())
+                .path("")
+                .method(HttpMethod.GET)
+                .headers(headers)
+                .build();
+        try {
+            return instance.getTransport().exchange(probe)
+                    .get(properties.getProbeInterval().toMillis(), TimeUnit.MILLISECONDS)
+                    .getStatusCode().is2xxSuccessful();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.balancing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ServerInstance {
+    private final String url;
+    private final UpstreamTransport transport;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean ejected;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Counter ejections;
+
+    ServerInstance(String url, UpstreamTransport transport, MeterRegistry registry) {
+        this.url = url;
+        this.transport = transport;
+        Tags tags = Tags.of("instance", url);
+        this.succeeded = requests(registry, tags, "success");
+        this.failed = requests(registry, tags, "failure");
+        this.ejections = Counter.builder(LoadBalancingUpstreamTransport.EJECTIONS_METRIC)
+                .description("Times the instance was taken out of rotation")
+                .tags(tags)
+                .register(registry);
+        registry.gauge(LoadBalancingUpstreamTransport.OUTSTANDING_METRIC, tags, outstanding);
+        registry.gauge(LoadBalancingUpstreamTransport.HEALTHY_METRIC, tags, this, instance -> instance.ejected ? 0 : 1);
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    UpstreamTransport getTransport() {
+        return transport;
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    boolean isEjected() {
+        return ejected;
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    void onSuccess(long durationNanos, long slowCallNanos) {
+        outstanding.decrementAndGet();
+        succeeded.record(durationNanos, TimeUnit.NANOSECONDS);
+        if (durationNanos >= slowCallNanos) {
+            consecutiveFailures.incrementAndGet();
+        } else {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    void onFailure(long durationNanos) {
+        outstanding.decrementAndGet();
+        failed.record(durationNanos, TimeUnit.NANOSECONDS);
+        consecutiveFailures.incrementAndGet();
+    }
+
+    int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    synchronized boolean eject() {
+        if (ejected) {
+            return false;
+        }
+        ejected = true;
+        ejections.increment();
+        return true;
+    }
+
+    synchronized void reinstate() {
+        consecutiveFailures.set(0);
+        ejected = false;
+    }
+
+    private static Timer requests(MeterRegistry registry, Tags tags, String outcome) {
+        return Timer.builder(LoadBalancingUpstreamTransport.REQUESTS_METRIC)
+                .description("Calls to a shareit-server instance")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.client.BaseClient;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@RestController
+@RequestMapping(path = "/batch")
+public class BatchController {
+    @Autowired
+    private BatchService batchService;
+
+    @PostMapping
+    public CompletableFuture<List<SubResponseDto>> batch(
+            @RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+            @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchRequestDto batchRequestDto) {
+        log.info("POST batch запрос для userId: {}, количество запросов: {}", userId,
+                batchRequestDto.getRequests().size());
+        return batchService.execute(userId, idempotencyKey, batchRequestDto.getRequests());
+    }
+}
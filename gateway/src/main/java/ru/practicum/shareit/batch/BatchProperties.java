@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.batch")
+public class BatchProperties {
+    private int maxRequests = 20;
+    private Duration timeout = Duration.ofSeconds(10);
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+    @NotEmpty
+    private List<@Valid SubRequestDto> requests;
+}
@@ -0,0 +1,240 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.tracing.TraceContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Executes batch entries as ordinary requests to this gateway, so each of them passes the same
+ * validation, rate limiting and error handling as a standalone call. GET entries run in parallel;
+ * any other entry waits for everything listed before it and blocks everything listed after it.
+ * Entries carry the caller's trace ID and what is left of its deadline. A POST entry gets an
+ * Idempotency-Key derived from the caller's key and the entry position, so a retried batch
+ * replays each entry on its own.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchService {
+    private static final Set<HttpMethod> METHODS = Set.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT,
+            HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Set<String> FORBIDDEN_PREFIXES = Set.of("/batch", "/actuator");
+
+    private final WebClient webClient;
+    private final Environment environment;
+    private final ObjectMapper mapper;
+    private final BatchProperties properties;
+
+    public BatchService(WebClient.Builder builder, Environment environment, ObjectMapper mapper,
+                        BatchProperties properties) {
+        this.webClient = builder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) properties.getMaxInMemorySize().toBytes()))
+                .build();
+        this.environment = environment;
+        this.mapper = mapper;
+        this.properties = properties;
+    }
+
+    public CompletableFuture<List<SubResponseDto>> execute(Long userId, @Nullable String idempotencyKey,
+                                                           List<SubRequestDto> requests) {
+        if (requests.size() > properties.getMaxRequests()) {
+            throw new ValidationException("Превышено количество запросов в пакете: " + requests.size()
+                    + ", максимум: " + properties.getMaxRequests());
+        }
+        List<HttpMethod> methods = requests.stream().map(BatchService::method).collect(Collectors.toList());
+        List<URI> targets = requests.stream().map(request -> target(request.getPath())).collect(Collectors.toList());
+        Long remainingMillis = RequestDeadline.remainingMillis();
+        Caller caller = new Caller(userId, TraceContext.traceId(), idempotencyKey,
+                remainingMillis != null ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remainingMillis) : null);
+
+        List<CompletableFuture<SubResponseDto>> responses = new ArrayList<>();
+        CompletableFuture<?> barrier = CompletableFuture.completedFuture(null);
+        List<CompletableFuture<?>> sinceBarrier = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SubRequestDto request = requests.get(i);
+            HttpMethod method = methods.get(i);
+            URI target = targets.get(i);
+            int index = i;
+            CompletableFuture<SubResponseDto> response;
+            if (method == HttpMethod.GET) {
+                response = barrier.thenCompose(ignored -> send(caller, index, method, target, request));
+                sinceBarrier.add(response);
+            } else {
+                sinceBarrier.add(barrier);
+                response = CompletableFuture.allOf(sinceBarrier.toArray(new CompletableFuture[0]))
+                        .thenCompose(ignored -> send(caller, index, method, target, request));
+                barrier = response;
+                sinceBarrier = new ArrayList<>();
+            }
+            responses.add(response);
+        }
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> responses.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    private static HttpMethod method(SubRequestDto request) {
+        HttpMethod method = HttpMethod.resolve(request.getMethod().toUpperCase());
+        if (method == null || !METHODS.contains(method)) {
+            throw new ValidationException("Неподдерживаемый метод в пакете: " + request.getMethod());
+        }
+        return method;
+    }
+
+    /**
+     * @return the entry's encoded path and query. The path is decoded before it is checked, so encoded
+     * slashes and dots can't hide an authority or a traversal; once empty, "." and ".." segments are
+     * rejected the decoded path is already normalized and the forbidden prefixes are matched against it.
+     */
+    private static URI target(String path) {
+        URI uri;
+        try {
+            uri = relativeUri(path);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Недопустимый путь в пакете: " + path);
+        }
+        if (uri.getScheme() != null || uri.getRawAuthority() != null || uri.getRawFragment() != null
+                || uri.getRawPath() == null || !uri.getRawPath().startsWith("/")) {
+            throw new ValidationException("Недопустимый путь в пакете: " + path);
+        }
+        String decoded = uri.getPath();
+        boolean unsafe = decoded.contains("\\") || decoded.contains(";")
+                || Arrays.stream(decoded.split("/", -1)).skip(1)
+                .anyMatch(segment -> segment.isEmpty() || segment.equals(".") || segment.equals(".."));
+        if (unsafe || FORBIDDEN_PREFIXES.stream()
+                .anyMatch(prefix -> decoded.equals(prefix) || decoded.startsWith(prefix + "/"))) {
+            throw new ValidationException("Недопустимый путь в пакете: " + path);
+        }
+        return uri;
+    }
+
+    private CompletableFuture<SubResponseDto> send(Caller caller, int index, HttpMethod method, URI target,
+                                                   SubRequestDto request) {
+        Duration timeout = properties.getTimeout();
+        Long remainingMillis = null;
+        if (caller.getDeadlineNanos() != null) {
+            remainingMillis = TimeUnit.NANOSECONDS.toMillis(caller.getDeadlineNanos() - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return CompletableFuture.completedFuture(failed(method, request, new TimeoutException(
+                        "Истекло время на обработку запроса")));
+            }
+            Duration remaining = Duration.ofMillis(remainingMillis);
+            if (remaining.compareTo(timeout) < 0) {
+                timeout = remaining;
+            }
+        }
+        Long forwardedMillis = remainingMillis;
+        WebClient.RequestBodySpec spec = webClient.method(method)
+                .uri(UriComponentsBuilder.newInstance()
+                        .scheme("http")
+                        .host("localhost")
+                        .port(environment.getProperty("local.server.port"))
+                        .path(target.getRawPath())
+                        .query(target.getRawQuery())
+                        .build(true)
+                        .toUri())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (caller.getUserId() != null) {
+                        headers.set("X-Sharer-User-Id", String.valueOf(caller.getUserId()));
+                    }
+                    if (caller.getTraceId() != null) {
+                        headers.set(TraceContext.TRACE_ID_HEADER, caller.getTraceId());
+                    }
+                    if (forwardedMillis != null) {
+                        headers.set(RequestDeadline.HEADER, String.valueOf(forwardedMillis));
+                    }
+                    if (caller.getIdempotencyKey() != null && method == HttpMethod.POST) {
+                        headers.set(BaseClient.IDEMPOTENCY_KEY, entryKey(caller.getIdempotencyKey(), index));
+                    }
+                });
+        if (request.getBody() != null) {
+            spec.contentType(MediaType.APPLICATION_JSON).bodyValue(request.getBody());
+        }
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .timeout(timeout)
+                .toFuture()
+                .handle((response, e) -> {
+                    if (e == null) {
+                        return new SubResponseDto(request.getId(), response.getStatusCodeValue(), body(response));
+                    }
+                    return failed(method, request, e.getCause() != null ? e.getCause() : e);
+                });
+    }
+
+    private SubResponseDto failed(HttpMethod method, SubRequestDto request, Throwable cause) {
+        log.info("Ошибка выполнения запроса {} {} из пакета: {}", method, request.getPath(), cause.toString());
+        HttpStatus status = cause instanceof TimeoutException ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY;
+        return new SubResponseDto(request.getId(), status.value(),
+                mapper.valueToTree(Map.of("Ошибка выполнения запроса из пакета", String.valueOf(cause.getMessage()))));
+    }
+
+    // Same length whatever the caller's key is, and the same for every retry of the batch
+    private static String entryKey(String idempotencyKey, int index) {
+        return UUID.nameUUIDFromBytes((idempotencyKey + "#" + index).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static URI relativeUri(String path) {
+        try {
+            return URI.create(path);
+        } catch (IllegalArgumentException e) {
+            // Not percent-encoded, e.g. /items/search?text=дрель
+            return UriComponentsBuilder.fromUriString(path).encode().build().toUri();
+        }
+    }
+
+    private JsonNode body(ResponseEntity<byte[]> response) {
+        byte[] body = response.getBody();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            try {
+                return mapper.readTree(body);
+            } catch (IOException e) {
+                log.info("Некорректный JSON в ответе на запрос из пакета: {}", e.getMessage());
+            }
+        }
+        return TextNode.valueOf(new String(body, contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset() : StandardCharsets.UTF_8));
+    }
+
+    @Value
+    private static class Caller {
+        Long userId;
+        String traceId;
+        String idempotencyKey;
+        Long deadlineNanos;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubRequestDto {
+    private String id;
+    @NotBlank
+    private String method;
+    @NotBlank
+    private String path;
+    private JsonNode body;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubResponseDto {
+    private String id;
+    private int status;
+    private JsonNode body;
+}
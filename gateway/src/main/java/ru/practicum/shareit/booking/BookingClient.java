@@ -1,43 +1,39 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GzipResponses;
+import ru.practicum.shareit.client.SmileResponses;
+import ru.practicum.shareit.client.UpstreamTransport;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(UpstreamTransport transport, GzipResponses gzipResponses,
+                         SmileResponses smileResponses) {
+        super(API_PREFIX, transport, gzipResponses, smileResponses);
     }
 
-    public ResponseEntity<Object> addBooking(long userId, BookingSimpleDto bookingSimpleDto) {
+    public CompletableFuture<ResponseEntity<Object>> addBooking(long userId, BookingSimpleDto bookingSimpleDto) {
         return post("", userId, bookingSimpleDto);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, long userId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(long bookingId, long userId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getBooking(long bookingId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getOwnBookings(long userId, String state, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getOwnBookings(long userId, String state, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -46,7 +42,7 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsForOwnItems(long userId, String state, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingsForOwnItems(long userId, String state, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -54,4 +50,33 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> getBookingsForOwnItem(long userId, long itemId, String state, int from,
+                                                                        int size) {
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "state", state,
+                "from", from,
+                "size", size
+        );
+        return get("/owner?state={state}&from={from}&size={size}&itemId={itemId}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwnBookings(long userId, String state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&from=0&size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBookingsForOwnItems(long userId, String state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&from=0&size={size}&cursor={cursor}", userId, parameters);
+    }
 }
@@ -14,6 +14,8 @@ import javax.validation.constraints.PositiveOrZero;
 
 import static ru.practicum.shareit.booking.BookingDtoValidator.isValid;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping(path = "/bookings")
@@ -23,7 +25,7 @@ public class BookingController {
     private BookingClient bookingClient;
 
     @PostMapping
-    ResponseEntity<Object> addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    CompletableFuture<ResponseEntity<Object>> addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                           @Valid @RequestBody BookingSimpleDto bookingSimpleDto,
                           BindingResult errors) {
         if (errors.hasErrors() || !isValid(bookingSimpleDto)) {
@@ -34,7 +36,7 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    ResponseEntity<Object> approveBooking(@PathVariable long bookingId,
+    CompletableFuture<ResponseEntity<Object>> approveBooking(@PathVariable long bookingId,
                               @RequestParam(name = "approved") boolean approved,
                               @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("PATCH запрос для user_id: {}, booking_id: {}, approved={}", bookingId, userId, approved);
@@ -42,34 +44,47 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    ResponseEntity<Object> getBooking(@PathVariable long bookingId,
+    CompletableFuture<ResponseEntity<Object>> getBooking(@PathVariable long bookingId,
                           @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("GET запрос для user_id: {}, booking_id: {}", userId, bookingId);
         return bookingClient.getBooking(bookingId, userId);
     }
 
     @GetMapping
-    ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+    CompletableFuture<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
                                  @PositiveOrZero(message = "Ошибка пагинации, from >= 0")
                                  @RequestParam(name = "from", required = false, defaultValue = "0") int from,
                                  @Positive(message = "Ошибка пагинации, size > 0")
-                                 @RequestParam(name = "size", required = false, defaultValue = "20") int size) {
+                                 @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+                                 @RequestParam(name = "cursor", required = false) String cursor) {
         validateState(state);
         log.info("GET запрос собственных бронирований пользователя с id: {}, state: {}", userId, state);
-        return bookingClient.getOwnBookings(userId, state, from, size);
+        return cursor != null
+                ? bookingClient.getOwnBookings(userId, state, cursor, size)
+                : bookingClient.getOwnBookings(userId, state, from, size);
     }
 
     @GetMapping("/owner")
-    ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+    CompletableFuture<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                     @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
                                     @PositiveOrZero(message = "Ошибка пагинации, from >= 0")
                                     @RequestParam(name = "from", required = false, defaultValue = "0") int from,
                                     @Positive(message = "Ошибка пагинации, size > 0")
-                                    @RequestParam(name = "size", required = false, defaultValue = "20") int size) {
+                                    @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                    @RequestParam(name = "itemId", required = false) Long itemId) {
         validateState(state);
-        log.info("GET запрос бронирований предметов пользователя с id: {}, state: {}", userId, state);
-        return bookingClient.getBookingsForOwnItems(userId, state, from, size);
+        log.info("GET запрос бронирований предметов пользователя с id: {}, state: {}, item_id: {}", userId, state, itemId);
+        if (itemId != null) {
+            if (cursor != null) {
+                throw new ValidationException("Курсор пагинации не поддерживается вместе с itemId");
+            }
+            return bookingClient.getBookingsForOwnItem(userId, itemId, state, from, size);
+        }
+        return cursor != null
+                ? bookingClient.getBookingsForOwnItems(userId, state, cursor, size)
+                : bookingClient.getBookingsForOwnItems(userId, state, from, size);
     }
 
     private void validateState(String state) {
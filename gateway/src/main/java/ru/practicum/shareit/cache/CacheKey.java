@@ -0,0 +1,12 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+@Value
+public class CacheKey {
+    String resource;
+    String uri;
+    @Nullable
+    Long userId;
+}
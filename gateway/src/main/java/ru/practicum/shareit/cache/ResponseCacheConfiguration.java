@@ -0,0 +1,40 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfiguration {
+    public static final String CACHE_NAME = "shareit-gateway-responses";
+
+    @Bean
+    public Cache<CacheKey, ResponseEntity<byte[]>> responseCache(ResponseCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    @Order(100)
+    public ResponseCacheInterceptor responseCacheInterceptor(Cache<CacheKey, ResponseEntity<byte[]>> responseCache,
+                                                             ResponseCacheProperties properties) {
+        return new ResponseCacheInterceptor(responseCache, properties.getPaths());
+    }
+
+    @Bean
+    public MeterBinder responseCacheMetrics(Cache<CacheKey, ResponseEntity<byte[]>> responseCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, responseCache, CACHE_NAME);
+    }
+}
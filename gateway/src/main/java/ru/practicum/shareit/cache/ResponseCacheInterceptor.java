@@ -0,0 +1,100 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import ru.practicum.shareit.client.ConditionalRequests;
+import ru.practicum.shareit.client.UpstreamInterceptor;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+import ru.practicum.shareit.tracing.ServerTimings;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class ResponseCacheInterceptor implements UpstreamInterceptor {
+    // Writes to a resource also change the views of these resources (lastBooking/nextBooking of items,
+    // items of requests, author names in comments, cascade deletes of users).
+    private static final Map<String, List<String>> DEPENDENT_PREFIXES = Map.of(
+            "/bookings", List.of("/items"),
+            "/items", List.of("/requests"),
+            "/users", List.of("/items", "/requests")
+    );
+
+    private final Cache<CacheKey, ResponseEntity<byte[]>> cache;
+    private final List<String> paths;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCacheInterceptor(Cache<CacheKey, ResponseEntity<byte[]>> cache, List<String> paths) {
+        this.cache = cache;
+        this.paths = paths;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next) {
+        if (request.getMethod() == HttpMethod.GET) {
+            return cachedExchange(request, next);
+        }
+        if (request.getMethod() == HttpMethod.HEAD || request.getMethod() == HttpMethod.OPTIONS) {
+            return next.exchange(request);
+        }
+        invalidate(request);
+        return next.exchange(request).whenComplete((response, e) -> invalidate(request));
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> cachedExchange(UpstreamRequest request, UpstreamTransport next) {
+        URI uri = request.getUri();
+        if (paths.stream().noneMatch(path -> pathMatcher.match(path, uri.getPath()))) {
+            return next.exchange(request);
+        }
+
+        CacheKey key = new CacheKey(resourceOf(uri.getPath()), uri.toString(), request.getUserId());
+        ResponseEntity<byte[]> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(ConditionalRequests.evaluate(request.getHeaders(), cached));
+        }
+
+        // The full response is fetched so that it can be cached; the conditions are checked against it here
+        UpstreamRequest unconditional = ConditionalRequests.isConditional(request.getHeaders())
+                ? request.toBuilder().headers(ConditionalRequests.withoutConditions(request.getHeaders())).build()
+                : request;
+        long startGeneration = generation.get();
+        return next.exchange(unconditional).thenApply(response -> {
+            if (response.getStatusCode() == HttpStatus.OK && generation.get() == startGeneration) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.putAll(response.getHeaders());
+                // The server's phases belong to this call only, a cache hit doesn't repeat them
+                headers.remove(ServerTimings.HEADER);
+                cache.put(key, ResponseEntity.status(HttpStatus.OK)
+                        .headers(HttpHeaders.readOnlyHttpHeaders(headers))
+                        .body(response.getBody()));
+            }
+            return ConditionalRequests.evaluate(request.getHeaders(), response);
+        });
+    }
+
+    private void invalidate(UpstreamRequest request) {
+        generation.incrementAndGet();
+        String resource = resourceOf(request.getUri().getPath());
+        List<String> dependentPrefixes = DEPENDENT_PREFIXES.getOrDefault(request.getPrefix(), List.of());
+        cache.asMap().keySet().removeIf(key -> key.getResource().equals(resource)
+                || dependentPrefixes.stream().anyMatch(prefix -> key.getResource().startsWith(prefix + "/")));
+        log.debug("Инвалидирован кэш ответов для {}", resource);
+    }
+
+    // "/items/1/comment" -> "/items/1", "/bookings" -> "/bookings"
+    private static String resourceOf(String path) {
+        String[] segments = path.split("/");
+        return segments.length > 2 ? "/" + segments[1] + "/" + segments[2] : path;
+    }
+}
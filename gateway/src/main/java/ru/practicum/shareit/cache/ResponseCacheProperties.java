@@ -0,0 +1,18 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private long maxEntries = 10_000;
+    private Duration ttl = Duration.ofSeconds(30);
+    private List<String> paths = List.of("/items/{id:[0-9]+}", "/users/{id:[0-9]+}", "/requests/{id:[0-9]+}");
+}
@@ -2,118 +2,202 @@ package ru.practicum.shareit.client;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.tracing.ServerTimings;
+import ru.practicum.shareit.tracing.TraceContext;
 
-public class BaseClient {
-    protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-    }
+import javax.servlet.http.HttpServletRequest;
 
-    protected ResponseEntity<Object> get(String path) {
+public class BaseClient {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final List<String> PROXIED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            NEXT_CURSOR
+    );
+
+    private final String prefix;
+    private final UpstreamTransport transport;
+    private final GzipResponses gzipResponses;
+    private final SmileResponses smileResponses;
+
+    public BaseClient(String prefix, UpstreamTransport transport, GzipResponses gzipResponses,
+                      SmileResponses smileResponses) {
+        this.prefix = prefix;
+        this.transport = transport;
+        this.gzipResponses = gzipResponses;
+        this.smileResponses = smileResponses;
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Long remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis != null && remainingMillis <= 0) {
+            return CompletableFuture.failedFuture(new TimeoutException("Истекло время на обработку запроса"));
         }
-        return prepareGatewayResponse(shareitServerResponse);
-    }
-
-    private HttpHeaders defaultHeaders(Long userId) {
+        UpstreamRequest request = UpstreamRequest.builder()
+                .prefix(prefix)
+                .method(method)
+                .path(path)
+                .parameters(parameters != null ? parameters : Map.of())
+                .headers(defaultHeaders(method, userId, remainingMillis))
+                .body(body)
+                .userId(userId)
+                .build();
+        boolean clientAcceptsGzip = GzipResponses.clientAcceptsGzip();
+        long gatewayNanos = TraceContext.elapsedNanos();
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<Object>> response = transport.exchange(request)
+                .thenApply(upstreamResponse -> prepareGatewayResponse(upstreamResponse, clientAcceptsGzip,
+                        ServerTimings.merge(upstreamResponse.getHeaders().getFirst(ServerTimings.HEADER), gatewayNanos,
+                                System.nanoTime() - start)));
+        return remainingMillis != null ? response.orTimeout(remainingMillis, TimeUnit.MILLISECONDS) : response;
+    }
+
+    private HttpHeaders defaultHeaders(HttpMethod method, Long userId, @Nullable Long remainingMillis) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set(HttpHeaders.ACCEPT_ENCODING, GzipResponses.GZIP);
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        String traceId = TraceContext.traceId();
+        if (traceId != null) {
+            headers.set(TraceContext.TRACE_ID_HEADER, traceId);
+        }
+        if (remainingMillis != null) {
+            headers.set(RequestDeadline.HEADER, String.valueOf(remainingMillis));
+        }
+        if (method == HttpMethod.GET) {
+            forwardClientHeaders(headers, ConditionalRequests.CONDITIONAL_HEADERS);
+        } else if (method == HttpMethod.POST) {
+            forwardClientHeaders(headers, List.of(IDEMPOTENCY_KEY));
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    // Must run on the servlet thread, before the upstream call is handed off
+    private static void forwardClientHeaders(HttpHeaders headers, List<String> names) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
         }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        names.forEach(name -> {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
+        });
+    }
+
+    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response, boolean clientAcceptsGzip,
+                                                          String serverTiming) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .header(ServerTimings.HEADER, serverTiming);
+
+        HttpHeaders headers = response.getHeaders();
+        boolean smile = SmileResponses.isSmile(headers);
+        PROXIED_HEADERS.stream()
+                .filter(headers::containsKey)
+                .filter(name -> !smile || !HttpHeaders.CONTENT_TYPE.equals(name))
+                .forEach(name -> responseBuilder.header(name, headers.get(name).toArray(String[]::new)));
+
+        byte[] body = response.getBody();
+        if (body != null && body.length > 0) {
+            if (smile) {
+                byte[] smileBody = GzipResponses.isGzip(headers) ? gzipResponses.gunzip(body) : body;
+                return responseBuilder
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(smileResponses.toJson(smileBody));
+            }
+            if (GzipResponses.isGzip(headers)) {
+                if (clientAcceptsGzip) {
+                    gzipResponses.passedThrough();
+                    return responseBuilder
+                            .header(HttpHeaders.CONTENT_ENCODING, GzipResponses.GZIP)
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                            .body(body);
+                }
+                return responseBuilder.body(gzipResponses.gunzip(body));
+            }
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+public final class ConditionalRequests {
+    static final List<String> CONDITIONAL_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE);
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY);
+
+    private ConditionalRequests() {
+    }
+
+    public static boolean isConditional(HttpHeaders headers) {
+        return CONDITIONAL_HEADERS.stream().anyMatch(headers::containsKey);
+    }
+
+    public static HttpHeaders withoutConditions(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(headers);
+        CONDITIONAL_HEADERS.forEach(copy::remove);
+        return copy;
+    }
+
+    /**
+     * Turns a full response into 304 when the request's If-None-Match matches its ETag.
+     */
+    public static ResponseEntity<byte[]> evaluate(HttpHeaders requestHeaders, ResponseEntity<byte[]> response) {
+        if (response.getStatusCode() != HttpStatus.OK || !matches(requestHeaders, response.getHeaders().getETag())) {
+            return response;
+        }
+        ResponseEntity.BodyBuilder notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED);
+        NOT_MODIFIED_HEADERS.stream()
+                .filter(response.getHeaders()::containsKey)
+                .forEach(name -> notModified.header(name, response.getHeaders().get(name).toArray(String[]::new)));
+        return notModified.build();
+    }
+
+    // If-None-Match uses the weak comparison, so the W/ prefix on either side doesn't matter
+    private static boolean matches(HttpHeaders requestHeaders, @Nullable String etag) {
+        if (etag == null || !requestHeaders.containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        return requestHeaders.getIfNoneMatch().stream()
+                .anyMatch(candidate -> candidate.equals("*") || opaque(candidate).equals(opaque));
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+@Component
+public class GzipResponses {
+    static final String GZIP = "gzip";
+
+    private final Counter passedThrough;
+    private final Counter decompressed;
+    private final Timer decompression;
+    private final DistributionSummary ratio;
+
+    public GzipResponses(MeterRegistry registry) {
+        this.passedThrough = Counter.builder("shareit.gateway.compressed.responses")
+                .description("Gzipped shareit-server responses relayed to the client as is")
+                .tag("handling", "passthrough")
+                .register(registry);
+        this.decompressed = Counter.builder("shareit.gateway.compressed.responses")
+                .description("Gzipped shareit-server responses decompressed for the client")
+                .tag("handling", "decompressed")
+                .register(registry);
+        this.decompression = Timer.builder("shareit.gateway.decompression")
+                .description("Time spent decompressing shareit-server responses")
+                .register(registry);
+        this.ratio = DistributionSummary.builder("shareit.gateway.compression.ratio")
+                .description("Uncompressed to compressed size of shareit-server responses")
+                .register(registry);
+    }
+
+    static boolean isGzip(HttpHeaders headers) {
+        return GZIP.equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * Whether the client of the request being handled by the current thread accepts gzip.
+     * Must be called on the servlet thread, before the upstream call is made.
+     */
+    static boolean clientAcceptsGzip() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        return Collections.list(((ServletRequestAttributes) attributes).getRequest()
+                        .getHeaders(HttpHeaders.ACCEPT_ENCODING)).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(value -> value.split(";")[0].trim())
+                .anyMatch(GZIP::equalsIgnoreCase);
+    }
+
+    void passedThrough() {
+        passedThrough.increment();
+    }
+
+    byte[] gunzip(byte[] compressed) {
+        long start = System.nanoTime();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] body = StreamUtils.copyToByteArray(in);
+            decompression.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            ratio.record((double) body.length / compressed.length);
+            decompressed.increment();
+            return body;
+        } catch (IOException e) {
+            throw new RestClientException("Некорректный gzip-ответ shareit-server", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class InterceptingUpstreamTransport implements UpstreamTransport {
+    private final UpstreamTransport chain;
+
+    public InterceptingUpstreamTransport(UpstreamTransport transport, List<UpstreamInterceptor> interceptors) {
+        UpstreamTransport next = transport;
+        for (int i = interceptors.size() - 1; i >= 0; i--) {
+            UpstreamInterceptor interceptor = interceptors.get(i);
+            UpstreamTransport current = next;
+            next = request -> interceptor.intercept(request, current);
+        }
+        this.chain = next;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(UpstreamRequest request) {
+        return chain.exchange(request);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs a blocking transport on a bounded I/O pool, so that controller threads are released while shareit-server
+ * answers. The pool is owned by the transport and shut down with it.
+ */
+public class OffloadingUpstreamTransport implements UpstreamTransport, DisposableBean {
+    public static final String QUEUE_WAIT_METRIC = "shareit.gateway.io.queue.wait";
+
+    private final UpstreamTransport transport;
+    private final ExecutorService executor;
+    private final Timer queueWait;
+
+    public OffloadingUpstreamTransport(UpstreamTransport transport, ExecutorService executor, MeterRegistry registry) {
+        this.transport = transport;
+        this.executor = executor;
+        this.queueWait = Timer.builder(QUEUE_WAIT_METRIC)
+                .description("Time upstream calls wait for a free I/O thread")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(UpstreamRequest request) {
+        long queued = System.nanoTime();
+        Map<String, String> logContext = MDC.getCopyOfContextMap();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+                if (logContext != null) {
+                    MDC.setContextMap(logContext);
+                }
+                try {
+                    return transport.exchange(request);
+                } finally {
+                    MDC.clear();
+                }
+            }, executor).thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdown();
+        if (transport instanceof DisposableBean) {
+            ((DisposableBean) transport).destroy();
+        }
+    }
+}
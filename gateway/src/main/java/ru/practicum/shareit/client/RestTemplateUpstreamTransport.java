@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+public class RestTemplateUpstreamTransport implements UpstreamTransport {
+    private final RestTemplate rest;
+
+    public RestTemplateUpstreamTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(UpstreamRequest request) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(request.getBody(), request.getHeaders());
+        try {
+            return CompletableFuture.completedFuture(rest.exchange(request.getUriTemplate(), request.getMethod(),
+                    requestEntity, byte[].class, request.getParameters()));
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray()));
+        } catch (RestClientException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.balancing.LoadBalancerProperties;
+import ru.practicum.shareit.balancing.LoadBalancingUpstreamTransport;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Configuration
+@EnableConfigurationProperties({ShareItServerHttpProperties.class, LoadBalancerProperties.class})
+public class ShareItServerClientConfiguration {
+    public static final String IO_QUEUE_DEPTH_METRIC = "shareit.gateway.io.queue.depth";
+
+    @Bean
+    @Primary
+    public UpstreamTransport upstreamTransport(@Qualifier("baseUpstreamTransport") UpstreamTransport baseUpstreamTransport,
+                                               ObjectProvider<UpstreamInterceptor> interceptors) {
+        return new InterceptingUpstreamTransport(baseUpstreamTransport,
+                interceptors.orderedStream().collect(Collectors.toList()));
+    }
+
+    @Bean
+    @Order
+    @ConditionalOnProperty(name = "shareit-server.wire-format", havingValue = "smile", matchIfMissing = true)
+    public SmileUpstreamInterceptor smileUpstreamInterceptor(Jackson2ObjectMapperBuilder builder) {
+        return new SmileUpstreamInterceptor(builder.factory(new SmileFactory()).build());
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.transport", havingValue = "rest-template", matchIfMissing = true)
+    public static class RestTemplateTransportConfiguration {
+
+        @Bean
+        public PoolingHttpClientConnectionManager shareItServerConnectionManager(ShareItServerHttpProperties properties) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                    properties.getConnectionTtl().toMillis(), TimeUnit.MILLISECONDS);
+            connectionManager.setMaxTotal(properties.getMaxTotal());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+            connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+            return connectionManager;
+        }
+
+        @Bean
+        public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager shareItServerConnectionManager,
+                                                           ShareItServerHttpProperties properties) {
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                    .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                    .setSocketTimeout((int) properties.getSocketTimeout().toMillis())
+                    .build();
+            return HttpClients.custom()
+                    .setConnectionManager(shareItServerConnectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAlive().toMillis()))
+                    // BaseClient negotiates gzip itself and may relay compressed bodies as is
+                    .disableContentCompression()
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getEvictIdleAfter().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        @Bean
+        public HttpComponentsClientHttpRequestFactory shareItServerRequestFactory(CloseableHttpClient shareItServerHttpClient) {
+            return new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient);
+        }
+
+        @Bean
+        public RestTemplateCustomizer shareItServerRestTemplateCustomizer(
+                HttpComponentsClientHttpRequestFactory shareItServerRequestFactory) {
+            return restTemplate -> restTemplate.setRequestFactory(shareItServerRequestFactory);
+        }
+
+        @Bean
+        public MeterBinder shareItServerConnectionPoolMetrics(PoolingHttpClientConnectionManager shareItServerConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(shareItServerConnectionManager, "shareit-server");
+        }
+
+        @Bean
+        public UpstreamTransport baseUpstreamTransport(@Value("${shareit-server.url}") List<String> serverUrls,
+                                                       RestTemplateBuilder builder,
+                                                       ShareItServerHttpProperties properties,
+                                                       LoadBalancerProperties balancerProperties,
+                                                       MeterRegistry registry) {
+            UpstreamTransport transport = LoadBalancingUpstreamTransport.of(serverUrls, serverUrl -> new RestTemplateUpstreamTransport(
+                    builder
+                            .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                            .build()
+            ), balancerProperties, registry);
+            return new OffloadingUpstreamTransport(transport, ioExecutor(properties, registry), registry);
+        }
+
+        // Not a bean: any Executor bean would replace Boot's applicationTaskExecutor
+        private static ThreadPoolExecutor ioExecutor(ShareItServerHttpProperties properties, MeterRegistry registry) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("shareit-server-io-");
+            threadFactory.setDaemon(true);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getIoThreads(), properties.getIoThreads(),
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getIoQueueCapacity()), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+            new ExecutorServiceMetrics(executor, "shareit-server-io", List.of()).bindTo(registry);
+            registry.gauge(IO_QUEUE_DEPTH_METRIC, executor, pool -> pool.getQueue().size());
+            return executor;
+        }
+
+        private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMillis) {
+            return (response, context) -> {
+                long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return keepAlive > 0 ? keepAlive : defaultKeepAliveMillis;
+            };
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.transport", havingValue = "web-client")
+    public static class WebClientTransportConfiguration {
+
+        @Bean(destroyMethod = "dispose")
+        public ConnectionProvider shareItServerConnectionProvider(ShareItServerHttpProperties properties) {
+            return ConnectionProvider.builder("shareit-server")
+                    .maxConnections(properties.getMaxTotal())
+                    .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                    .maxIdleTime(properties.getEvictIdleAfter())
+                    .maxLifeTime(properties.getConnectionTtl())
+                    .evictInBackground(properties.getEvictIdleAfter())
+                    .metrics(true)
+                    .build();
+        }
+
+        @Bean
+        public UpstreamTransport baseUpstreamTransport(@Value("${shareit-server.url}") List<String> serverUrls,
+                                                       WebClient.Builder builder,
+                                                       ConnectionProvider shareItServerConnectionProvider,
+                                                       ShareItServerHttpProperties properties,
+                                                       LoadBalancerProperties balancerProperties,
+                                                       MeterRegistry registry) {
+            HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getSocketTimeout());
+            ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+            return LoadBalancingUpstreamTransport.of(serverUrls, serverUrl -> new WebClientUpstreamTransport(
+                    builder.clone()
+                            .baseUrl(serverUrl)
+                            .clientConnector(connector)
+                            .codecs(codecs -> codecs.defaultCodecs()
+                                    .maxInMemorySize((int) properties.getMaxInMemorySize().toBytes()))
+                            .build()
+            ), balancerProperties, registry);
+        }
+    }
+}
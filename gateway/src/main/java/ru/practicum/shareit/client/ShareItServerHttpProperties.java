@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ShareItServerHttpProperties {
+    private int maxTotal = 200;
+    private int maxPerRoute = 100;
+    private Duration connectionTtl = Duration.ofMinutes(5);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration evictIdleAfter = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    private Duration socketTimeout = Duration.ofSeconds(10);
+    private int ioThreads = 200;
+    private int ioQueueCapacity = 1000;
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+}
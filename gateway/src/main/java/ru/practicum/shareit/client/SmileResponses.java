@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SmileResponses {
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Timer transcoding;
+
+    public SmileResponses(MeterRegistry registry) {
+        this.transcoding = Timer.builder("shareit.gateway.transcoding")
+                .description("Time spent converting Smile responses of shareit-server to JSON")
+                .register(registry);
+    }
+
+    static boolean isSmile(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        return contentType != null && SmileUpstreamInterceptor.SMILE.isCompatibleWith(contentType);
+    }
+
+    byte[] toJson(byte[] smile) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream json = new ByteArrayOutputStream(smile.length * 2);
+        try (JsonParser parser = SMILE_FACTORY.createParser(smile);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(json)) {
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            throw new RestClientException("Некорректный Smile-ответ shareit-server", e);
+        }
+        transcoding.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return json.toByteArray();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Switches the gateway–server hop to Smile: request bodies are encoded as Smile and Smile responses are
+ * preferred, with JSON still accepted from servers that do not support it. {@link BaseClient} turns
+ * Smile responses back into JSON for the gateway's own clients.
+ */
+public class SmileUpstreamInterceptor implements UpstreamInterceptor {
+    static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper smileMapper;
+
+    public SmileUpstreamInterceptor(ObjectMapper smileMapper) {
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(request.getHeaders());
+        headers.setAccept(List.of(SMILE, MediaType.APPLICATION_JSON));
+        UpstreamRequest.UpstreamRequestBuilder builder = request.toBuilder().headers(headers);
+        if (request.getBody() != null) {
+            headers.setContentType(SMILE);
+            builder.body(encode(request.getBody()));
+        }
+        return next.exchange(builder.build());
+    }
+
+    private byte[] encode(Object body) {
+        try {
+            return smileMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new RestClientException("Ошибка сериализации запроса к shareit-server", e);
+        }
+    }
+}
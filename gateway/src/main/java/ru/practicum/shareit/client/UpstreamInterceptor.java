@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface UpstreamInterceptor {
+
+    CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next);
+}
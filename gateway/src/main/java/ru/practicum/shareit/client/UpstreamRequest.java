@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+
+import java.net.URI;
+import java.util.Map;
+
+@Value
+@Builder(toBuilder = true)
+public class UpstreamRequest {
+    private static final UriBuilderFactory URI_BUILDER_FACTORY = new DefaultUriBuilderFactory();
+
+    String prefix;
+    HttpMethod method;
+    String path;
+    @Builder.Default
+    Map<String, Object> parameters = Map.of();
+    HttpHeaders headers;
+    @Nullable
+    Object body;
+    @Nullable
+    Long userId;
+
+    public String getUriTemplate() {
+        return prefix + path;
+    }
+
+    public URI getUri() {
+        return URI_BUILDER_FACTORY.expand(getUriTemplate(), parameters);
+    }
+}
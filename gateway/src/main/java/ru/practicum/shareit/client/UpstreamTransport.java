@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface UpstreamTransport {
+
+    CompletableFuture<ResponseEntity<byte[]>> exchange(UpstreamRequest request);
+}
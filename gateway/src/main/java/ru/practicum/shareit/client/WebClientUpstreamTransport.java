@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+public class WebClientUpstreamTransport implements UpstreamTransport {
+    private final WebClient webClient;
+
+    public WebClientUpstreamTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(UpstreamRequest request) {
+        WebClient.RequestBodySpec bodySpec = webClient.method(request.getMethod())
+                .uri(request.getUriTemplate(), request.getParameters())
+                .headers(headers -> headers.addAll(request.getHeaders()));
+        WebClient.RequestHeadersSpec<?> spec = request.getBody() != null ? bodySpec.bodyValue(request.getBody()) : bodySpec;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .onErrorMap(WebClientRequestException.class, e -> new ResourceAccessException(
+                        "I/O error on " + request.getMethod() + " request for \"" + e.getUri() + "\": " + e.getMessage(),
+                        e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e)))
+                .toFuture();
+    }
+}
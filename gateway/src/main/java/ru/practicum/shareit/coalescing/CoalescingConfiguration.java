@@ -0,0 +1,20 @@
+package ru.practicum.shareit.coalescing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@EnableConfigurationProperties(CoalescingProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class CoalescingConfiguration {
+
+    @Bean
+    @Order(200)
+    public CoalescingInterceptor coalescingInterceptor(CoalescingProperties properties, MeterRegistry registry) {
+        return new CoalescingInterceptor(properties.getPaths(), registry);
+    }
+}
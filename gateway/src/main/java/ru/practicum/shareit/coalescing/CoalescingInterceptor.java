@@ -0,0 +1,98 @@
+package ru.practicum.shareit.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import ru.practicum.shareit.client.UpstreamInterceptor;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CoalescingInterceptor implements UpstreamInterceptor {
+    public static final String COALESCED_METRIC = "shareit.gateway.coalesced.requests";
+    public static final String IN_FLIGHT_METRIC = "shareit.gateway.coalescing.in.flight";
+
+    private final Map<String, Counter> coalescedByEndpoint;
+    private final Map<RequestKey, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public CoalescingInterceptor(List<String> paths, MeterRegistry registry) {
+        this.coalescedByEndpoint = paths.stream().collect(Collectors.toMap(Function.identity(),
+                path -> Counter.builder(COALESCED_METRIC)
+                        .description("GET requests served by an identical in-flight upstream call")
+                        .tag("endpoint", path)
+                        .register(registry),
+                (first, second) -> first, LinkedHashMap::new));
+        registry.gaugeMapSize(IN_FLIGHT_METRIC, List.of(), inFlight);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+        URI uri = request.getUri();
+        Counter coalesced = endpointCounter(uri.getPath());
+        if (coalesced == null) {
+            return next.exchange(request);
+        }
+
+        RequestKey key = new RequestKey(uri.toString(), request.getUserId(),
+                request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            // Waiters get their own stage so that none of them can complete or cancel the shared call
+            return existing.thenApply(Function.identity());
+        }
+
+        try {
+            next.exchange(request).whenComplete((response, e) -> {
+                inFlight.remove(key, call);
+                if (e != null) {
+                    call.completeExceptionally(e);
+                } else {
+                    call.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+        }
+        return call.thenApply(Function.identity());
+    }
+
+    @Nullable
+    private Counter endpointCounter(String path) {
+        return coalescedByEndpoint.entrySet().stream()
+                .filter(entry -> pathMatcher.match(entry.getKey(), path))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Value
+    private static class RequestKey {
+        String uri;
+        @Nullable
+        Long userId;
+        // A conditional request may get 304 where an unconditional one needs the body
+        @Nullable
+        String ifNoneMatch;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.coalescing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.coalescing")
+public class CoalescingProperties {
+    private boolean enabled = true;
+    private List<String> paths = List.of("/items/{id:[0-9]+}", "/items/search", "/users/{id:[0-9]+}",
+            "/requests/{id:[0-9]+}");
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.deadline;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties properties) {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(new DeadlineFilter(properties));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
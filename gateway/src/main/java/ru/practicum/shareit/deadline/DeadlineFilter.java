@@ -0,0 +1,46 @@
+package ru.practicum.shareit.deadline;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Fixes the deadline of a client request when it comes in: the client's own X-Request-Timeout if it sent one, capped at
+ * the maximum, or the default.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+    private final DeadlineProperties properties;
+
+    public DeadlineFilter(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Duration timeout = clientTimeout(request.getHeader(RequestDeadline.HEADER));
+        if (timeout == null) {
+            timeout = properties.getDefaultTimeout();
+        } else if (timeout.compareTo(properties.getMaxTimeout()) > 0) {
+            timeout = properties.getMaxTimeout();
+        }
+        request.setAttribute(RequestDeadline.ATTRIBUTE, System.nanoTime() + timeout.toNanos());
+        chain.doFilter(request, response);
+    }
+
+    private static Duration clientTimeout(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis(Math.max(0, Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
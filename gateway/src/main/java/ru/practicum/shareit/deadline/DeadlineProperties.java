@@ -0,0 +1,16 @@
+package ru.practicum.shareit.deadline;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.deadline")
+public class DeadlineProperties {
+    private boolean enabled = true;
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    private Duration maxTimeout = Duration.ofSeconds(30);
+}
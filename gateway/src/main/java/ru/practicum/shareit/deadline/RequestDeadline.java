@@ -0,0 +1,32 @@
+package ru.practicum.shareit.deadline;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+public final class RequestDeadline {
+    /**
+     * Time left for the request in milliseconds, both as the client's budget and as what is forwarded to shareit-server.
+     */
+    public static final String HEADER = "X-Request-Timeout";
+
+    static final String ATTRIBUTE = RequestDeadline.class.getName();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Milliseconds left until the deadline of the client request handled by the current thread, negative once it has
+     * passed, or null outside of one.
+     */
+    @Nullable
+    public static Long remainingMillis() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object deadline = attributes != null
+                ? attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        return deadline != null ? TimeUnit.NANOSECONDS.toMillis((Long) deadline - System.nanoTime()) : null;
+    }
+}
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -11,6 +16,8 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 
 import javax.validation.ConstraintViolationException;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @RestControllerAdvice
@@ -53,6 +60,41 @@ public class ErrorHandler {
         return Map.of("Отсутствует X-Sharer-User-Id заголовок", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> missingParameter(MissingServletRequestParameterException e) {
+        log.info(MESSAGE, e.getMessage());
+        return Map.of(MESSAGE, e.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("Превышен лимит запросов", e.getMessage()));
+    }
+
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> serverUnavailable(RuntimeException e) {
+        log.info("shareit-server временно недоступен: {}", e.getMessage());
+        return Map.of("shareit-server временно недоступен", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> gatewayOverloaded(RejectedExecutionException e) {
+        log.info("Очередь запросов к shareit-server переполнена: {}", e.getMessage());
+        return Map.of("Шлюз перегружен, повторите запрос позже", String.valueOf(e.getMessage()));
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Map<String, String> deadlineExceeded(TimeoutException e) {
+        log.info("Истекло время ожидания ответа shareit-server: {}", e.getMessage());
+        return Map.of("Истекло время на обработку запроса", String.valueOf(e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> restClientError(RestClientException e) {
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every request earns {@code percent} hundredths of a hedge, a hedge costs a whole one. Unused credit is capped
+ * at {@code burst} hedges, so over any stretch of time hedges stay within the given share of requests.
+ */
+public class HedgingBudget {
+    private static final long HEDGE_COST = 100;
+
+    private final long earnedPerRequest;
+    private final long maxCredit;
+    private final AtomicLong credit = new AtomicLong();
+
+    public HedgingBudget(int percent, int burst) {
+        this.earnedPerRequest = percent;
+        this.maxCredit = HEDGE_COST * burst;
+    }
+
+    public void onRequest() {
+        if (earnedPerRequest > 0) {
+            credit.updateAndGet(current -> Math.min(maxCredit, current + earnedPerRequest));
+        }
+    }
+
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = credit.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+}
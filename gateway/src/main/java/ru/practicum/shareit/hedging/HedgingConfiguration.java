@@ -0,0 +1,34 @@
+package ru.practicum.shareit.hedging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(HedgingProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.hedging.enabled", havingValue = "true", matchIfMissing = true)
+public class HedgingConfiguration {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService hedgingScheduler() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("hedging-timer-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @Bean
+    @Order(250)
+    public HedgingInterceptor hedgingInterceptor(HedgingProperties properties,
+                                                 ScheduledExecutorService hedgingScheduler,
+                                                 MeterRegistry registry) {
+        return new HedgingInterceptor(properties, new HedgingBudget(properties.getBudgetPercent(), properties.getBurst()),
+                hedgingScheduler, registry);
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.hedging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import ru.practicum.shareit.client.UpstreamInterceptor;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class HedgingInterceptor implements UpstreamInterceptor {
+    public static final String HEDGES_METRIC = "shareit.gateway.hedged.requests";
+    public static final String DELAY_METRIC = "shareit.gateway.hedging.delay";
+
+    private final HedgingProperties properties;
+    private final HedgingBudget budget;
+    private final ScheduledExecutorService scheduler;
+    private final MeterRegistry registry;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public HedgingInterceptor(HedgingProperties properties, HedgingBudget budget, ScheduledExecutorService scheduler,
+                              MeterRegistry registry) {
+        this.properties = properties;
+        this.budget = budget;
+        this.scheduler = scheduler;
+        this.registry = registry;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next) {
+        if (request.getMethod() != HttpMethod.GET || !isHedged(request.getUri().getPath())) {
+            return next.exchange(request);
+        }
+        budget.onRequest();
+        String client = clientName(request.getPrefix());
+        HedgedCall call = new HedgedCall(request, next, client, latencies.computeIfAbsent(client, this::newWindow));
+        call.start();
+        return call.result.thenApply(Function.identity());
+    }
+
+    private boolean isHedged(String path) {
+        return properties.getPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private LatencyWindow newWindow(String client) {
+        LatencyWindow window = new LatencyWindow(properties.getWindowSize(), properties.getPercentile(),
+                properties.getMinDelay().toNanos(), properties.getMaxDelay().toNanos(), properties.getMinSamples());
+        registry.gauge(DELAY_METRIC, Tags.of("client", client), window,
+                w -> (double) TimeUnit.NANOSECONDS.toMillis(w.delayNanos()));
+        return window;
+    }
+
+    private Counter hedges(String client, String outcome) {
+        return Counter.builder(HEDGES_METRIC)
+                .description("Hedged GET attempts by outcome")
+                .tags("client", client, "outcome", outcome)
+                .register(registry);
+    }
+
+    // "/items" -> "items"
+    private static String clientName(String prefix) {
+        return prefix.startsWith("/") ? prefix.substring(1) : prefix;
+    }
+
+    private final class HedgedCall {
+        private final UpstreamRequest request;
+        private final UpstreamTransport next;
+        private final String client;
+        private final LatencyWindow latency;
+        private final CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        // attempts that may still answer; the call fails only when all of them have failed
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private volatile Throwable lastError;
+
+        HedgedCall(UpstreamRequest request, UpstreamTransport next, String client, LatencyWindow latency) {
+            this.request = request;
+            this.next = next;
+            this.client = client;
+            this.latency = latency;
+        }
+
+        void start() {
+            ScheduledFuture<?> timer = scheduler.schedule(this::hedge, latency.delayNanos(), TimeUnit.NANOSECONDS);
+            result.whenComplete((response, e) -> timer.cancel(false));
+            attempt(false);
+        }
+
+        private void hedge() {
+            pending.incrementAndGet();
+            if (result.isDone()) {
+                release();
+                return;
+            }
+            if (!budget.tryAcquire()) {
+                hedges(client, "budget-exhausted").increment();
+                release();
+                return;
+            }
+            hedges(client, "sent").increment();
+            attempt(true);
+        }
+
+        private void attempt(boolean hedge) {
+            long start = System.nanoTime();
+            CompletableFuture<ResponseEntity<byte[]>> call;
+            try {
+                call = next.exchange(request);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((response, e) -> {
+                if (e != null) {
+                    lastError = e;
+                    release();
+                    return;
+                }
+                latency.record(System.nanoTime() - start);
+                if (result.complete(response) && hedge) {
+                    hedges(client, "won").increment();
+                }
+            });
+        }
+
+        private void release() {
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(lastError);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.hedging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.hedging")
+public class HedgingProperties {
+    private boolean enabled = true;
+    private List<String> paths = List.of("/**");
+    private double percentile = 95.0;
+    private Duration minDelay = Duration.ofMillis(10);
+    private Duration maxDelay = Duration.ofMillis(500);
+    private int windowSize = 1000;
+    private int minSamples = 50;
+    private int budgetPercent = 10;
+    private int burst = 10;
+}
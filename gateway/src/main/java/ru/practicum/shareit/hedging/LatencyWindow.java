@@ -0,0 +1,54 @@
+package ru.practicum.shareit.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the last {@code size} upstream latencies and turns their percentile into the hedging delay. The percentile
+ * is recomputed every tenth of the window, so reading the delay on the request path costs a volatile read.
+ */
+public class LatencyWindow {
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final int recomputeEvery;
+    private volatile long delayNanos;
+
+    public LatencyWindow(int size, double percentile, long minDelayNanos, long maxDelayNanos, int minSamples) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.minSamples = Math.min(Math.max(minSamples, 1), size);
+        this.recomputeEvery = Math.max(size / 10, 1);
+        this.delayNanos = maxDelayNanos;
+    }
+
+    public void record(long latencyNanos) {
+        long count = recorded.getAndIncrement();
+        samples.set((int) (count % samples.length()), latencyNanos);
+        count++;
+        if (count >= minSamples && (count == minSamples || count % recomputeEvery == 0)) {
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, percentileOf(count)));
+        }
+    }
+
+    public long delayNanos() {
+        return delayNanos;
+    }
+
+    private long percentileOf(long count) {
+        int size = (int) Math.min(count, samples.length());
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * size) - 1;
+        return sorted[Math.max(0, Math.min(rank, size - 1))];
+    }
+}
@@ -1,47 +1,53 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GzipResponses;
+import ru.practicum.shareit.client.SmileResponses;
+import ru.practicum.shareit.client.UpstreamTransport;
 
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(UpstreamTransport transport, GzipResponses gzipResponses,
+                      SmileResponses smileResponses) {
+        super(API_PREFIX, transport, gzipResponses, smileResponses);
     }
 
-    public ResponseEntity<Object> addItem(long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> addComment(long itemId, long userId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(long itemId, long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(long userId, ItemDto itemDto) {
         return patch("/" + itemDto.getId(), userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(long itemId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getItem(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllItems(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(long itemId, long userId, LocalDateTime from,
+                                                                     LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAllItems(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -49,7 +55,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findAvailableItems(long uid, String text, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> findAvailableItems(long uid, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -57,4 +63,16 @@ public class ItemClient extends BaseClient {
         );
         return get("/search?text={text}&from={from}&size={size}", uid, parameters);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> findAvailableItems(long uid, String text, LocalDateTime start,
+                                                                        LocalDateTime end, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", uid, parameters);
+    }
 }
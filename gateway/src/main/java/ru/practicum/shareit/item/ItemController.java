@@ -2,14 +2,18 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ValidationException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -20,14 +24,14 @@ public class ItemController {
     private ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> addItem(@RequestHeader("X-Sharer-User-Id") long userId,
                            @Valid @RequestBody ItemDto itemDto) {
         log.info("POST запрос для id: {}, item: {}", userId, itemDto);
         return itemClient.addItem(userId, itemDto);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable long itemId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@PathVariable long itemId,
                                  @RequestHeader("X-Sharer-User-Id") long userId,
                                  @Valid @RequestBody CommentDto commentDto) {
         log.info("POST запрос для id: {}, comment: {}", userId, commentDto);
@@ -35,7 +39,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable long itemId,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@PathVariable long itemId,
                               @RequestHeader("X-Sharer-User-Id") long userId,
                               @RequestBody ItemDto itemDto) {
         itemDto.setId(itemId);
@@ -44,14 +48,26 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable long itemId,
+    public CompletableFuture<ResponseEntity<Object>> getItem(@PathVariable long itemId,
                            @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("GET запрос для itemId: {}, от userId: {}", itemId, userId);
         return itemClient.getItem(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(@PathVariable long itemId,
+                                    @RequestHeader("X-Sharer-User-Id") long userId,
+                                    @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                    @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET запрос доступности itemId: {}, от userId: {}", itemId, userId);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца: " + from + " - " + to);
+        }
+        return itemClient.getAvailability(itemId, userId, from, to);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllItems(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @PositiveOrZero(message = "Ошибка пагинации, from >= 0")
                                            @RequestParam(name = "from", required = false, defaultValue = "0") int from,
                                            @Positive(message = "Ошибка пагинации, size > 0")
@@ -61,15 +77,26 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> findAvailableItems(@RequestHeader("X-Sharer-User-Id") long userId,
+    public CompletableFuture<ResponseEntity<Object>> findAvailableItems(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @RequestParam(name = "text", required = false) String text,
+                                                 @RequestParam(name = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                 @RequestParam(name = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                                  @PositiveOrZero(message = "Ошибка пагинации, from >= 0")
                                                  @RequestParam(name = "from", required = false, defaultValue = "0") int from,
                                                  @Positive(message = "Ошибка пагинации, size > 0")
                                                  @RequestParam(name = "size", required = false, defaultValue = "20") int size) {
-        log.info("GET запрос на поиск с text: {}", text);
+        log.info("GET запрос на поиск с text: {}, start: {}, end: {}", text, start, end);
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Для поиска свободных предметов нужны оба параметра start и end");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Начало периода должно быть раньше конца: " + start + " - " + end);
+        }
         if (text == null || text.isBlank()) {
-            return ResponseEntity.ok(List.of());
+            return CompletableFuture.completedFuture(ResponseEntity.ok(List.of()));
+        }
+        if (start != null) {
+            return itemClient.findAvailableItems(userId, text, start, end, from, size);
         }
         return itemClient.findAvailableItems(userId, text, from, size);
     }
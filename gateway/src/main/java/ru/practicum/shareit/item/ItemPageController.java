@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.aggregation.CompositeViewAggregator;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@RestController
+@RequestMapping("/items")
+@Validated
+public class ItemPageController {
+    @Autowired
+    private CompositeViewAggregator aggregator;
+    @Autowired
+    private ItemPageView itemPageView;
+
+    @GetMapping("/{itemId}/page")
+    public CompletableFuture<ResponseEntity<Object>> getItemPage(@PathVariable long itemId,
+                                                                 @RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @PositiveOrZero(message = "Ошибка пагинации, from >= 0")
+                                                                 @RequestParam(name = "from", required = false, defaultValue = "0") int from,
+                                                                 @Positive(message = "Ошибка пагинации, size > 0")
+                                                                 @RequestParam(name = "size", required = false, defaultValue = "20") int size) {
+        log.info("GET запрос страницы предмета itemId: {}, от userId: {}", itemId, userId);
+        return aggregator.render(itemPageView.getView(), new ItemPageView.Context(userId, itemId, from, size));
+    }
+}
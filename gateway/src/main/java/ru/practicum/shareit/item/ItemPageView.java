@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.aggregation.CompositeView;
+import ru.practicum.shareit.aggregation.Section;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.request.ItemRequestClient;
+
+/**
+ * The item with the owner's bookings of it and the request it was added for. The item and the bookings are fetched
+ * concurrently, the request once the item tells which one it is.
+ */
+@Getter
+@Component
+public class ItemPageView {
+    private final CompositeView<Context> view;
+
+    public ItemPageView(ItemClient itemClient, BookingClient bookingClient, ItemRequestClient itemRequestClient) {
+        this.view = CompositeView.of("item-page",
+                Section.<Context>of("item", (context, dependencies) ->
+                        itemClient.getItem(context.getItemId(), context.getUserId())).required(),
+                Section.<Context>of("ownerBookings", (context, dependencies) ->
+                        bookingClient.getBookingsForOwnItem(context.getUserId(), context.getItemId(),
+                                BookingState.ALL.name(), context.getFrom(), context.getSize())),
+                Section.<Context>of("request", (context, dependencies) -> {
+                    JsonNode requestId = dependencies.get("item").path("requestId");
+                    return requestId.canConvertToLong()
+                            ? itemRequestClient.getItemRequest(context.getUserId(), requestId.asLong())
+                            : null;
+                }).dependsOn("item"));
+    }
+
+    @Value
+    public static class Context {
+        long userId;
+        long itemId;
+        int from;
+        int size;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.knownusers;
+
+import java.util.BitSet;
+
+/**
+ * Immutable snapshot of the user IDs that exist on shareit-server, one bit per ID. IDs are assigned in increasing order
+ * and never reused, so an ID above the largest one ever seen may belong to a user created since and is never reported
+ * as unknown, while a missing ID below it is gone for good.
+ */
+class KnownUserIds {
+    private final BitSet ids;
+    private final long maxId;
+
+    private KnownUserIds(BitSet ids, long maxId) {
+        this.ids = ids;
+        this.maxId = maxId;
+    }
+
+    static KnownUserIds of(long[] userIds, long previousMaxId) {
+        BitSet ids = new BitSet();
+        long maxId = previousMaxId;
+        for (long id : userIds) {
+            if (id > 0 && id <= Integer.MAX_VALUE) {
+                ids.set((int) id);
+                maxId = Math.max(maxId, id);
+            }
+        }
+        return new KnownUserIds(ids, maxId);
+    }
+
+    boolean isUnknown(long id) {
+        return id <= 0 || id <= maxId && !ids.get((int) id);
+    }
+
+    KnownUserIds without(long id) {
+        if (id <= 0 || id > maxId) {
+            return this;
+        }
+        BitSet remaining = (BitSet) ids.clone();
+        remaining.clear((int) id);
+        return new KnownUserIds(remaining, maxId);
+    }
+
+    long maxId() {
+        return maxId;
+    }
+
+    int size() {
+        return ids.cardinality();
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.knownusers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(KnownUsersProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.known-users.enabled", havingValue = "true", matchIfMissing = true)
+public class KnownUsersConfiguration {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService knownUsersScheduler() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("known-users-refresh-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    // Outside the latency metrics: a local rejection is not a call to shareit-server
+    @Bean
+    @Order(40)
+    public KnownUsersInterceptor knownUsersInterceptor(KnownUsersProperties properties,
+                                                       @Qualifier("baseUpstreamTransport") UpstreamTransport baseUpstreamTransport,
+                                                       ObjectMapper objectMapper,
+                                                       ScheduledExecutorService knownUsersScheduler,
+                                                       MeterRegistry registry) {
+        KnownUsersInterceptor interceptor = new KnownUsersInterceptor(baseUpstreamTransport,
+                properties.getExemptPaths(), objectMapper, registry);
+        long interval = properties.getRefreshInterval().toMillis();
+        knownUsersScheduler.scheduleWithFixedDelay(interceptor::refresh, 0, interval, TimeUnit.MILLISECONDS);
+        return interceptor;
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.knownusers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import ru.practicum.shareit.client.UpstreamInterceptor;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Answers 404 for an X-Sharer-User-Id that is known not to exist without asking shareit-server. The set of IDs is
+ * reloaded periodically and after users are created or deleted through the gateway.
+ */
+@Slf4j
+public class KnownUsersInterceptor implements UpstreamInterceptor {
+    public static final String REJECTED_METRIC = "shareit.gateway.unknown.users.rejected";
+    public static final String KNOWN_METRIC = "shareit.gateway.known.users";
+
+    private static final String USERS_PREFIX = "/users";
+
+    private final UpstreamTransport baseTransport;
+    private final List<String> exemptPaths;
+    private final ObjectMapper mapper;
+    private final Counter rejected;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    // Null until the first refresh, every ID passes meanwhile
+    private final AtomicReference<KnownUserIds> knownIds = new AtomicReference<>();
+    private final AtomicLong deletions = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public KnownUsersInterceptor(UpstreamTransport baseTransport, List<String> exemptPaths, ObjectMapper mapper,
+                                 MeterRegistry registry) {
+        this.baseTransport = baseTransport;
+        this.exemptPaths = exemptPaths;
+        this.mapper = mapper;
+        this.rejected = Counter.builder(REJECTED_METRIC)
+                .description("Requests rejected by the gateway for an X-Sharer-User-Id that does not exist")
+                .register(registry);
+        registry.gauge(KNOWN_METRIC, knownIds, ids -> ids.get() != null ? ids.get().size() : Double.NaN);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next) {
+        Long userId = request.getUserId();
+        if (userId != null && isUnknown(userId) && !isExempt(request)) {
+            rejected.increment();
+            log.info("Запрос {} {} от несуществующего пользователя с id: {}", request.getMethod(),
+                    request.getUriTemplate(), userId);
+            return CompletableFuture.completedFuture(userNotFound(userId));
+        }
+        if (USERS_PREFIX.equals(request.getPrefix())
+                && (request.getMethod() == HttpMethod.POST || request.getMethod() == HttpMethod.DELETE)) {
+            return next.exchange(request).whenComplete((response, e) -> {
+                if (e == null && response.getStatusCode().is2xxSuccessful()) {
+                    usersChanged(request);
+                }
+            });
+        }
+        return next.exchange(request);
+    }
+
+    /**
+     * Reloads the IDs from shareit-server, keeping the previous set if it cannot be reached.
+     */
+    public CompletableFuture<Void> refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long startDeletions = deletions.get();
+        UpstreamRequest request = UpstreamRequest.builder()
+                .prefix(USERS_PREFIX)
+                .method(HttpMethod.GET)
+                .path("/ids")
+                .headers(jsonHeaders())
+                .build();
+        CompletableFuture<ResponseEntity<byte[]>> call;
+        try {
+            call = baseTransport.exchange(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((response, e) -> {
+            refreshing.set(false);
+            if (e != null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                log.warn("Не удалось обновить список пользователей: {}",
+                        e != null ? e.getMessage() : response.getStatusCode());
+                return null;
+            }
+            KnownUserIds ids = parse(response.getBody());
+            if (ids == null) {
+                return null;
+            }
+            if (deletions.get() != startDeletions) {
+                // A user deleted meanwhile may still be in the response, the next refresh will see the deletion
+                log.debug("Список пользователей устарел во время загрузки");
+                return null;
+            }
+            knownIds.set(ids);
+            log.debug("Обновлён список пользователей: {}", ids.size());
+            return null;
+        });
+    }
+
+    boolean isUnknown(long userId) {
+        KnownUserIds ids = knownIds.get();
+        return ids != null && ids.isUnknown(userId);
+    }
+
+    private boolean isExempt(UpstreamRequest request) {
+        String path = request.getUri().getPath();
+        return exemptPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private void usersChanged(UpstreamRequest request) {
+        if (request.getMethod() == HttpMethod.DELETE) {
+            deletions.incrementAndGet();
+            Long deletedId = parseId(request.getPath());
+            if (deletedId != null) {
+                knownIds.updateAndGet(ids -> ids != null ? ids.without(deletedId) : null);
+            }
+        }
+        // New IDs are above the largest known one and pass anyway, the refresh moves the boundary past them
+        refresh();
+    }
+
+    private KnownUserIds parse(byte[] body) {
+        try {
+            KnownUserIds previous = knownIds.get();
+            return KnownUserIds.of(mapper.readValue(body, long[].class), previous != null ? previous.maxId() : 0);
+        } catch (IOException e) {
+            log.warn("Не удалось разобрать список пользователей: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Long parseId(String path) {
+        try {
+            return Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return headers;
+    }
+
+    private ResponseEntity<byte[]> userNotFound(long userId) {
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(Map.of("Пользователь не найден", "Не найден пользователь с id:" + userId));
+        } catch (IOException e) {
+            body = ("Не найден пользователь с id:" + userId).getBytes(StandardCharsets.UTF_8);
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.knownusers;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.known-users")
+public class KnownUsersProperties {
+    private boolean enabled = true;
+    private Duration refreshInterval = Duration.ofSeconds(30);
+    // Endpoints that shareit-server serves without looking up X-Sharer-User-Id
+    private List<String> exemptPaths = List.of("/items/{id:[0-9]+}", "/items/{id:[0-9]+}/availability", "/items/search");
+}
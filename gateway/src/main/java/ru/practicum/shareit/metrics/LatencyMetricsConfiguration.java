@@ -0,0 +1,37 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.latency-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class LatencyMetricsConfiguration {
+
+    @Bean
+    @Order(50)
+    public UpstreamTimingInterceptor upstreamTimingInterceptor(MeterRegistry registry) {
+        return new UpstreamTimingInterceptor(registry);
+    }
+
+    @Bean
+    public LocalTimingInterceptor localTimingInterceptor(MeterRegistry registry) {
+        return new LocalTimingInterceptor(registry);
+    }
+
+    @Bean
+    public WebMvcConfigurer localTimingConfigurer(LocalTimingInterceptor localTimingInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // First in the chain, so that requests rejected by the rate limiter are timed as well
+                registry.addInterceptor(localTimingInterceptor).order(Ordered.HIGHEST_PRECEDENCE);
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+final class LatencyTags {
+    static final String UNKNOWN = "UNKNOWN";
+
+    private LatencyTags() {
+    }
+
+    // The controller mapping, e.g. "/bookings/{bookingId}", keeps the tag cardinality bounded
+    static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN;
+    }
+
+    static String currentRoute() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+                ? route(((ServletRequestAttributes) attributes).getRequest())
+                : UNKNOWN;
+    }
+
+    static String outcome(int status) {
+        if (status >= 500) {
+            return "server-error";
+        }
+        if (status >= 400) {
+            return "client-error";
+        }
+        if (status >= 300) {
+            return "redirection";
+        }
+        return "success";
+    }
+
+    static String outcome(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                || cause instanceof RejectedExecutionException) {
+            return "rejected";
+        }
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof SocketTimeoutException) {
+                return "timeout";
+            }
+        }
+        return "io-error";
+    }
+}
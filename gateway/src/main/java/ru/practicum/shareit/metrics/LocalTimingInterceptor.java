@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the gateway's own share of a request: binding, validation and the controller up to the moment the upstream
+ * call is handed off. Requests answered by the gateway itself, e.g. rejected by validation, are timed in full.
+ */
+public class LocalTimingInterceptor implements AsyncHandlerInterceptor {
+    public static final String LOCAL_METRIC = "shareit.gateway.request.local";
+
+    private static final String START_ATTRIBUTE = LocalTimingInterceptor.class.getName() + ".start";
+    private static final String LOCAL_ATTRIBUTE = LocalTimingInterceptor.class.getName() + ".local";
+
+    private final MeterRegistry registry;
+
+    public LocalTimingInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.setAttribute(LOCAL_ATTRIBUTE, System.nanoTime() - (Long) start);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                @Nullable Exception ex) {
+        Object local = request.getAttribute(LOCAL_ATTRIBUTE);
+        if (local == null) {
+            Object start = request.getAttribute(START_ATTRIBUTE);
+            if (start == null) {
+                return;
+            }
+            local = System.nanoTime() - (Long) start;
+        }
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        Timer.builder(LOCAL_METRIC)
+                .description("Time spent in the gateway itself, without waiting for shareit-server")
+                .tag("route", LatencyTags.route(request))
+                .tag("method", request.getMethod())
+                .tag("status", String.valueOf(status))
+                .tag("outcome", LatencyTags.outcome(status))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(registry)
+                .record((Long) local, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.UpstreamInterceptor;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times what a controller waits for shareit-server, cache hits, coalesced calls and hedges included.
+ */
+public class UpstreamTimingInterceptor implements UpstreamInterceptor {
+    public static final String UPSTREAM_METRIC = "shareit.gateway.upstream.calls";
+
+    private final MeterRegistry registry;
+
+    public UpstreamTimingInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next) {
+        // Runs on the servlet thread, so the route is still at hand
+        String route = LatencyTags.currentRoute();
+        String method = request.getMethod().name();
+        long start = System.nanoTime();
+        CompletableFuture<ResponseEntity<byte[]>> response;
+        try {
+            response = next.exchange(request);
+        } catch (RuntimeException e) {
+            record(route, method, "none", LatencyTags.outcome(e), start);
+            throw e;
+        }
+        response.whenComplete((result, error) -> {
+            if (error != null) {
+                record(route, method, "none", LatencyTags.outcome(error), start);
+            } else {
+                int status = result.getStatusCodeValue();
+                record(route, method, String.valueOf(status), LatencyTags.outcome(status), start);
+            }
+        });
+        return response;
+    }
+
+    private void record(String route, String method, String status, String outcome, long start) {
+        Timer.builder(UPSTREAM_METRIC)
+                .description("Time spent waiting for shareit-server")
+                .tag("route", route)
+                .tag("method", method)
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
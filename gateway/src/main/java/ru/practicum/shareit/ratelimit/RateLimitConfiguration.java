@@ -0,0 +1,30 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+    private final RateLimitProperties properties;
+
+    public RateLimitConfiguration(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(properties, System::nanoTime);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter()))
+                .addPathPatterns("/bookings/**", "/items/**", "/requests/**", "/users/**");
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // The request was already charged when it first came in, this is only the dispatch of its result
+            return true;
+        }
+        Long userId = parseUserId(request.getHeader(USER_HEADER));
+        if (userId == null) {
+            // Requests without a valid header are rejected by the controllers themselves
+            return true;
+        }
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        boolean write = method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS;
+        long wait = rateLimiter.tryAcquire(userId, write);
+        if (wait > 0) {
+            long retryAfter = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            log.info("Превышен лимит запросов для userId: {}, {} {}", userId, request.getMethod(), request.getRequestURI());
+            throw new TooManyRequestsException("Превышен лимит запросов для пользователя с id: " + userId, retryAfter);
+        }
+        return true;
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
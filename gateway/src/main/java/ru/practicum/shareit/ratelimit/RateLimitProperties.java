@@ -0,0 +1,45 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    @Valid
+    private Bucket read = new Bucket(100, 50);
+    @Valid
+    private Bucket write = new Bucket(20, 10);
+    private Duration idleExpiry = Duration.ofMinutes(10);
+    private long maxUsers = 100_000;
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        @Positive
+        @Max(TokenBucket.MAX_RATE)
+        private long capacity;
+        @Positive
+        @Max(TokenBucket.MAX_RATE)
+        private long refillPerSecond;
+
+        public Bucket() {
+        }
+
+        public Bucket(long capacity, long refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
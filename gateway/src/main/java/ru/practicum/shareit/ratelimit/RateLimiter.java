@@ -0,0 +1,65 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class RateLimiter implements MeterBinder {
+    public static final String REJECTED_METRIC = "shareit.gateway.ratelimit.rejected";
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Cache<Long, TokenBucket> readBuckets;
+    private final Cache<Long, TokenBucket> writeBuckets;
+    private final LongAdder rejectedReads = new LongAdder();
+    private final LongAdder rejectedWrites = new LongAdder();
+
+    public RateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.readBuckets = buckets(properties);
+        this.writeBuckets = buckets(properties);
+    }
+
+    /**
+     * @return 0 if the request is allowed, otherwise nanoseconds until the user's bucket has a token again
+     */
+    public long tryAcquire(long userId, boolean write) {
+        RateLimitProperties.Bucket limits = write ? properties.getWrite() : properties.getRead();
+        Cache<Long, TokenBucket> buckets = write ? writeBuckets : readBuckets;
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = buckets.getIfPresent(userId);
+        if (bucket == null) {
+            bucket = buckets.get(userId, id -> new TokenBucket(limits.getCapacity(), limits.getRefillPerSecond(), now));
+        }
+        long wait = bucket.tryConsume(now);
+        if (wait > 0) {
+            (write ? rejectedWrites : rejectedReads).increment();
+        }
+        return wait;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(REJECTED_METRIC, rejectedReads, LongAdder::sum)
+                .description("Requests rejected by the per-user rate limit")
+                .tag("bucket", "read")
+                .register(registry);
+        FunctionCounter.builder(REJECTED_METRIC, rejectedWrites, LongAdder::sum)
+                .description("Requests rejected by the per-user rate limit")
+                .tag("bucket", "write")
+                .register(registry);
+    }
+
+    private static Cache<Long, TokenBucket> buckets(RateLimitProperties properties) {
+        return Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleExpiry())
+                .maximumSize(properties.getMaxUsers())
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its virtual-scheduling form (GCRA): instead of a token counter and
+ * a refill timestamp the bucket keeps the single time at which it becomes full again.
+ */
+public class TokenBucket {
+    // Keeps the emission interval at a microsecond or more and capacity * interval far from overflow
+    public static final long MAX_RATE = 1_000_000;
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, long refillPerSecond, long nowNanos) {
+        if (capacity <= 0 || capacity > MAX_RATE || refillPerSecond <= 0 || refillPerSecond > MAX_RATE) {
+            throw new IllegalArgumentException(String.format(
+                    "capacity и refillPerSecond должны быть в диапазоне 1..%d: capacity=%d, refillPerSecond=%d",
+                    MAX_RATE, capacity, refillPerSecond));
+        }
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if the token was taken, otherwise nanoseconds until the next token is available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
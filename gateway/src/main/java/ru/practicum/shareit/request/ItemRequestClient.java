@@ -1,39 +1,35 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GzipResponses;
+import ru.practicum.shareit.client.SmileResponses;
+import ru.practicum.shareit.client.UpstreamTransport;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(UpstreamTransport transport, GzipResponses gzipResponses,
+                             SmileResponses smileResponses) {
+        super(API_PREFIX, transport, gzipResponses, smileResponses);
     }
 
-    public ResponseEntity<Object> addItemRequest(long userId, ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItemRequest(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getOwn(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getOwn(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -41,7 +37,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequest(long userId, long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemRequest(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 }
@@ -10,6 +10,8 @@ import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping(path = "/requests")
@@ -19,20 +21,20 @@ public class ItemRequestController {
     private ItemRequestClient itemRequestClient;
 
     @PostMapping
-    ResponseEntity<Object>  addItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+    CompletableFuture<ResponseEntity<Object>>  addItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
                                   @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("POST запрос от пользователя с id: {}\n{}", userId, itemRequestDto.getDescription());
         return itemRequestClient.addItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    ResponseEntity<Object> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    CompletableFuture<ResponseEntity<Object>> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("GET запрос всех собственных запросов пользователя с id:{}", userId);
         return itemRequestClient.getOwn(userId);
     }
 
     @GetMapping("/all")
-    ResponseEntity<Object>  getItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+    CompletableFuture<ResponseEntity<Object>>  getItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
                                     @PositiveOrZero(message = "Ошибка пагинации, from >= 0")
                                     @RequestParam(name = "from", required = false, defaultValue = "0") int from,
                                     @Positive(message = "Ошибка пагинации, size > 0")
@@ -42,7 +44,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("{requestId}")
-    ResponseEntity<Object>  getRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+    CompletableFuture<ResponseEntity<Object>>  getRequest(@RequestHeader("X-Sharer-User-Id") long userId,
                               @PathVariable long requestId) {
         log.info("GET запрос для пользователя с id: {}, запроса с id: {}", userId, requestId);
         return itemRequestClient.getItemRequest(userId, requestId);
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class ResilienceConfiguration {
+    public static final List<String> CLIENTS = List.of("items", "bookings", "users", "requests");
+    public static final String TRANSITIONS_METRIC = "shareit.gateway.circuitbreaker.transitions";
+    public static final String REJECTED_METRIC = "shareit.gateway.bulkhead.rejected";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(ResilienceProperties properties) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDurationThreshold())
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordResult(result -> result instanceof ResponseEntity
+                        && ((ResponseEntity<?>) result).getStatusCode().is5xxServerError())
+                .build();
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(ResilienceProperties properties) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        return BulkheadRegistry.of(config);
+    }
+
+    @Bean
+    @Order(300)
+    public ResilienceInterceptor resilienceInterceptor(CircuitBreakerRegistry circuitBreakerRegistry,
+                                                       BulkheadRegistry bulkheadRegistry) {
+        return new ResilienceInterceptor(circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    @Bean
+    public MeterBinder resilienceMetrics(CircuitBreakerRegistry circuitBreakerRegistry,
+                                         BulkheadRegistry bulkheadRegistry) {
+        return registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(registry);
+            CLIENTS.forEach(client -> bindEvents(client, circuitBreakerRegistry, bulkheadRegistry, registry));
+        };
+    }
+
+    private static void bindEvents(String client, CircuitBreakerRegistry circuitBreakerRegistry,
+                                   BulkheadRegistry bulkheadRegistry, MeterRegistry registry) {
+        circuitBreakerRegistry.circuitBreaker(client).getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker клиента {} сменил состояние: {}", client, event.getStateTransition());
+            Counter.builder(TRANSITIONS_METRIC)
+                    .tag("client", client)
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(registry)
+                    .increment();
+        });
+        Counter rejected = Counter.builder(REJECTED_METRIC)
+                .description("Calls rejected because the client's concurrency limit was reached")
+                .tag("client", client)
+                .register(registry);
+        bulkheadRegistry.bulkhead(client).getEventPublisher().onCallRejected(event -> rejected.increment());
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.UpstreamInterceptor;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class ResilienceInterceptor implements UpstreamInterceptor {
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    public ResilienceInterceptor(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> intercept(UpstreamRequest request, UpstreamTransport next) {
+        String client = clientName(request.getPrefix());
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(client);
+        Bulkhead bulkhead = bulkheads.bulkhead(client);
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return CompletableFuture.failedFuture(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return CompletableFuture.failedFuture(BulkheadFullException.createBulkheadFullException(bulkhead));
+        }
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        CompletableFuture<ResponseEntity<byte[]>> call;
+        try {
+            call = next.exchange(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((response, e) -> {
+            bulkhead.onComplete();
+            long duration = circuitBreaker.getCurrentTimestamp() - start;
+            if (e != null) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else {
+                circuitBreaker.onResult(duration, circuitBreaker.getTimestampUnit(), response);
+            }
+        });
+    }
+
+    // "/items" -> "items"
+    static String clientName(String prefix) {
+        return prefix.startsWith("/") ? prefix.substring(1) : prefix;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.resilience;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.resilience")
+public class ResilienceProperties {
+    private boolean enabled = true;
+    private float failureRateThreshold = 50;
+    private float slowCallRateThreshold = 50;
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+    private int slidingWindowSize = 50;
+    private int minimumNumberOfCalls = 20;
+    private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+    private int permittedCallsInHalfOpenState = 5;
+    private int maxConcurrentCalls = 50;
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the gateway's phases in front of the ones reported by shareit-server:
+ * gateway (binding, validation, controller), upstream (waiting for shareit-server) and network, which is upstream
+ * minus the server's own app time, i.e. the I/O queue, the wire and connection handling.
+ */
+public final class ServerTimings {
+    public static final String HEADER = "Server-Timing";
+
+    private static final Pattern APP_DURATION = Pattern.compile("(?:^|,)\\s*app;dur=([0-9.]+)");
+
+    private ServerTimings() {
+    }
+
+    public static String merge(@Nullable String upstream, long gatewayNanos, long upstreamNanos) {
+        StringJoiner header = new StringJoiner(", ");
+        if (gatewayNanos >= 0) {
+            header.add(entry("gateway", gatewayNanos / 1_000_000.0));
+        }
+        double upstreamMillis = upstreamNanos / 1_000_000.0;
+        header.add(entry("upstream", upstreamMillis));
+        if (upstream != null && !upstream.isBlank()) {
+            Matcher app = APP_DURATION.matcher(upstream);
+            if (app.find()) {
+                header.add(entry("network", Math.max(0, upstreamMillis - Double.parseDouble(app.group(1)))));
+            }
+            header.add(upstream);
+        }
+        return header.toString();
+    }
+
+    private static String entry(String name, double millis) {
+        return String.format(Locale.ROOT, "%s;dur=%.2f", name, millis);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+public final class TraceContext {
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+
+    static final String TRACE_ID_ATTRIBUTE = TraceContext.class.getName() + ".traceId";
+    static final String START_ATTRIBUTE = TraceContext.class.getName() + ".start";
+
+    private TraceContext() {
+    }
+
+    /**
+     * The trace ID of the client request handled by the current thread, if any.
+     */
+    @Nullable
+    public static String traceId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? (String) attributes.getAttribute(TRACE_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    /**
+     * Time since the current client request entered the gateway, or -1 outside of one.
+     */
+    public static long elapsedNanos() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object start = attributes != null
+                ? attributes.getAttribute(START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        return start != null ? System.nanoTime() - (Long) start : -1;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Accepts the client's X-Trace-Id or starts a new trace, and keeps it in the log context for the request and for the
+ * dispatch of its async result.
+ */
+public class TraceIdFilter extends OncePerRequestFilter {
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[0-9A-Za-z-]{1,64}");
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = (String) request.getAttribute(TraceContext.TRACE_ID_ATTRIBUTE);
+        if (traceId == null) {
+            request.setAttribute(TraceContext.START_ATTRIBUTE, System.nanoTime());
+            traceId = request.getHeader(TraceContext.TRACE_ID_HEADER);
+            if (traceId == null || !VALID_TRACE_ID.matcher(traceId).matches()) {
+                traceId = newTraceId();
+            }
+            request.setAttribute(TraceContext.TRACE_ID_ATTRIBUTE, traceId);
+            response.setHeader(TraceContext.TRACE_ID_HEADER, traceId);
+        }
+        MDC.put(TraceContext.TRACE_ID_MDC_KEY, traceId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(TraceContext.TRACE_ID_MDC_KEY);
+        }
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+}
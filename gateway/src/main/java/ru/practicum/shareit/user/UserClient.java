@@ -1,45 +1,42 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GzipResponses;
+import ru.practicum.shareit.client.SmileResponses;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(UpstreamTransport transport, GzipResponses gzipResponses,
+                      SmileResponses smileResponses) {
+        super(API_PREFIX, transport, gzipResponses, smileResponses);
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> addUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long uid, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(long uid, UserDto userDto) {
         return patch("/" + uid, userDto);
     }
 
-    public ResponseEntity<Object> getUser(long uid) {
+    public CompletableFuture<ResponseEntity<Object>> getUser(long uid) {
         return get("/" + uid);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> removeUser(long uid) {
+    public CompletableFuture<ResponseEntity<Object>> removeUser(long uid) {
         return delete("/" + uid);
     }
 }
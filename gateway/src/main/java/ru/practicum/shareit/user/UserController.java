@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.util.Create;
 import ru.practicum.shareit.util.Update;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping(path = "/users")
@@ -16,32 +18,32 @@ public class UserController {
     private UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> userCreate(@Validated(Create.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> userCreate(@Validated(Create.class) @RequestBody UserDto userDto) {
         log.info("POST запрос для user: {}", userDto);
         return userClient.addUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> userUpdate(@PathVariable long id, @Validated(Update.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> userUpdate(@PathVariable long id, @Validated(Update.class) @RequestBody UserDto userDto) {
         log.info("PATCH запрос для id: {}, user: {}", id, userDto);
         userDto.setId(id);
         return userClient.updateUser(id, userDto);
     }
 
     @GetMapping("/{id}")
-    ResponseEntity<Object> userGet(@PathVariable long id) {
+    CompletableFuture<ResponseEntity<Object>> userGet(@PathVariable long id) {
         log.info("GET запрос для id: {}", id);
         return userClient.getUser(id);
     }
 
     @GetMapping
-    ResponseEntity<Object> usersGet() {
+    CompletableFuture<ResponseEntity<Object>> usersGet() {
         log.info("GET запрос для all users");
         return userClient.getAllUsers();
     }
 
     @DeleteMapping("/{id}")
-    ResponseEntity<Object> userDelete(@PathVariable long id) {
+    CompletableFuture<ResponseEntity<Object>> userDelete(@PathVariable long id) {
         log.info("DELETE запрос для user c id: {}", id);
         return userClient.removeUser(id);
     }
@@ -0,0 +1,349 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GzipResponses;
+import ru.practicum.shareit.client.InterceptingUpstreamTransport;
+import ru.practicum.shareit.client.RestTemplateUpstreamTransport;
+import ru.practicum.shareit.client.SmileResponses;
+import ru.practicum.shareit.client.SmileUpstreamInterceptor;
+import ru.practicum.shareit.client.UpstreamTransport;
+import ru.practicum.shareit.deadline.DeadlineFilter;
+import ru.practicum.shareit.deadline.DeadlineProperties;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.tracing.ServerTimings;
+import ru.practicum.shareit.tracing.TraceContext;
+import ru.practicum.shareit.tracing.TraceIdFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String ITEM = "{\"id\":1,\"name\":\"Item1\",\"available\":true}";
+    private static final String ERROR = "{\"Предмет не найден\":\"Не найден предмет с id:2\"}";
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private MockRestServiceServer server;
+    private UpstreamTransport transport;
+    private SimpleMeterRegistry registry;
+    private TestClient client;
+
+    @BeforeEach
+    void init() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:9090"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        transport = new RestTemplateUpstreamTransport(rest);
+        registry = new SimpleMeterRegistry();
+        client = new TestClient(transport, registry);
+    }
+
+    @Test
+    void responseBodyIsPassedThroughTest() {
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(ITEM.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void errorBodyIsPassedThroughTest() {
+        server.expect(requestTo("http://localhost:9090/items/2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(ERROR.getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<Object> response = client.getItem(2L, 1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void hopByHopHeadersAreNotPassedThroughTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    void nextCursorIsPassedThroughTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(BaseClient.NEXT_CURSOR, "QUxMOjE3MDAwMDAwMDA6MDo1");
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertEquals("QUxMOjE3MDAwMDAwMDA6MDo1", response.getHeaders().getFirst(BaseClient.NEXT_CURSOR));
+    }
+
+    @Test
+    void emptyBodyTest() {
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+
+        ResponseEntity<Object> response = client.removeItem(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void gzipBodyIsDecompressedForPlainClientTest() throws IOException {
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzip(ITEM), MediaType.APPLICATION_JSON)
+                        .headers(gzipEncoding()));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(ITEM.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(1, registry.get("shareit.gateway.compressed.responses").tag("handling", "decompressed")
+                .counter().count());
+        assertEquals(1, registry.get("shareit.gateway.decompression").timer().count());
+    }
+
+    @Test
+    void gzipBodyIsPassedThroughToGzipClientTest() throws IOException {
+        byte[] compressed = gzip(ITEM);
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andRespond(withSuccess(compressed, MediaType.APPLICATION_JSON)
+                        .headers(gzipEncoding()));
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        try {
+            ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+            assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            assertArrayEquals(compressed, (byte[]) response.getBody());
+            assertEquals(1, registry.get("shareit.gateway.compressed.responses").tag("handling", "passthrough")
+                    .counter().count());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void smileResponseIsConvertedToJsonTest() throws IOException {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        byte[] smile = smileMapper.writeValueAsBytes(new ObjectMapper().readTree(ITEM));
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andRespond(withSuccess(smile, SMILE));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(ITEM.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(1, registry.get("shareit.gateway.transcoding").timer().count());
+    }
+
+    @Test
+    void smileIsUsedOnUpstreamHopTest() throws IOException {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        TestClient smileClient = new TestClient(new InterceptingUpstreamTransport(transport,
+                List.of(new SmileUpstreamInterceptor(smileMapper))), registry);
+        Map<String, Object> item = Map.of("name", "Дрель");
+        server.expect(requestTo("http://localhost:9090/items"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, SMILE.toString()))
+                .andExpect(header(HttpHeaders.ACCEPT, SMILE + ", " + MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(smileMapper.writeValueAsBytes(item)))
+                .andRespond(withSuccess(smileMapper.writeValueAsBytes(Map.of("id", 1)), SMILE));
+
+        ResponseEntity<Object> response = smileClient.addItem(1L, item);
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"id\":1}", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ifNoneMatchIsForwardedAndNotModifiedPassedThroughTest() {
+        HttpHeaders etag = new HttpHeaders();
+        etag.setETag("\"1\"");
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag));
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        try {
+            ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+            assertEquals("\"1\"", response.getHeaders().getETag());
+            assertNull(response.getBody());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void idempotencyKeyIsForwardedOnPostTest() {
+        server.expect(requestTo("http://localhost:9090/items"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(BaseClient.IDEMPOTENCY_KEY, "k-1"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader(BaseClient.IDEMPOTENCY_KEY, "k-1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        try {
+            client.addItem(1L, Map.of("name", "Дрель"));
+
+            server.verify();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void traceIdIsForwardedAndServerTimingMergedTest() throws Exception {
+        HttpHeaders serverTiming = new HttpHeaders();
+        serverTiming.set(ServerTimings.HEADER, "db;dur=1.50, mapping;dur=0.20, serialization;dur=0.10, app;dur=2.00");
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(header(TraceContext.TRACE_ID_HEADER, "4bf92f3577b34da6a3ce929d0e0e4736"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON).headers(serverTiming));
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest("GET", "/items/1");
+        clientRequest.addHeader(TraceContext.TRACE_ID_HEADER, "4bf92f3577b34da6a3ce929d0e0e4736");
+        MockHttpServletResponse clientResponse = new MockHttpServletResponse();
+        AtomicReference<ResponseEntity<Object>> response = new AtomicReference<>();
+
+        new TraceIdFilter().doFilter(clientRequest, clientResponse, (request, ignored) ->
+                withRequest((HttpServletRequest) request, () -> response.set(client.getItem(1L, 1L))));
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", clientResponse.getHeader(TraceContext.TRACE_ID_HEADER));
+        String merged = response.get().getHeaders().getFirst(ServerTimings.HEADER);
+        assertTrue(merged.matches("gateway;dur=[0-9.]+, upstream;dur=[0-9.]+, network;dur=[0-9.]+, "
+                + "db;dur=1.50, mapping;dur=0.20, serialization;dur=0.10, app;dur=2.00"), merged);
+    }
+
+    @Test
+    void remainingDeadlineIsForwardedTest() throws Exception {
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(request -> {
+                    long remaining = Long.parseLong(request.getHeaders().getFirst(RequestDeadline.HEADER));
+                    assertTrue(remaining > 1000 && remaining <= 2000, String.valueOf(remaining));
+                })
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest("GET", "/items/1");
+        clientRequest.addHeader(RequestDeadline.HEADER, "60000");
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setMaxTimeout(Duration.ofSeconds(2));
+
+        new DeadlineFilter(properties).doFilter(clientRequest, new MockHttpServletResponse(),
+                (request, ignored) -> withRequest((HttpServletRequest) request, () -> client.getItem(1L, 1L)));
+
+        server.verify();
+    }
+
+    @Test
+    void expiredDeadlineFailsWithoutCallingServerTest() throws Exception {
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest("GET", "/items/1");
+        clientRequest.addHeader(RequestDeadline.HEADER, "0");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        new DeadlineFilter(new DeadlineProperties()).doFilter(clientRequest, new MockHttpServletResponse(),
+                (request, ignored) -> withRequest((HttpServletRequest) request, () -> failure.set(
+                        assertThrows(CompletionException.class, () -> client.getItem(1L, 1L)).getCause())));
+
+        assertInstanceOf(TimeoutException.class, failure.get());
+        server.verify();
+    }
+
+    private static void withRequest(HttpServletRequest request, Runnable action) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            action.run();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static HttpHeaders gzipEncoding() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return headers;
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(UpstreamTransport transport, MeterRegistry registry) {
+            super("/items", transport, new GzipResponses(registry), new SmileResponses(registry));
+        }
+
+        ResponseEntity<Object> getItem(long itemId, long userId) {
+            return get("/" + itemId, userId).join();
+        }
+
+        ResponseEntity<Object> addItem(long userId, Object item) {
+            return post("", userId, item).join();
+        }
+
+        ResponseEntity<Object> removeItem(long itemId) {
+            return delete("/" + itemId).join();
+        }
+    }
+}
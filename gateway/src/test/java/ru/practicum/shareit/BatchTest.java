@@ -0,0 +1,218 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.batch.BatchRequestDto;
+import ru.practicum.shareit.batch.SubRequestDto;
+import ru.practicum.shareit.batch.SubResponseDto;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.tracing.TraceContext;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BatchTest {
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private ObjectMapper mapper;
+    @MockBean
+    private UserClient userClient;
+    @MockBean
+    private ItemClient itemClient;
+    @MockBean
+    private BookingClient bookingClient;
+
+    @Test
+    void entriesAreExecutedWithOwnStatusesTest() {
+        when(userClient.getUser(1L)).thenReturn(completedFuture(ResponseEntity.ok(new UserDto(1L, "user", "user@mail.ru"))));
+        when(itemClient.getAllItems(anyLong(), anyInt(), anyInt()))
+                .thenReturn(completedFuture(ResponseEntity.ok(List.of(new ItemDto(1L, "Дрель", "Простая дрель", true,
+                        null, null, null, null)))));
+
+        SubResponseDto[] responses = batch(1L, new BatchRequestDto(List.of(
+                new SubRequestDto("user", "GET", "/users/1", null),
+                new SubRequestDto("items", "GET", "/items", null),
+                new SubRequestDto("bookings", "GET", "/bookings?state=WRONG", null)
+        ))).getBody();
+
+        assertEquals(3, responses.length);
+        assertEquals("user", responses[0].getId());
+        assertEquals(200, responses[0].getStatus());
+        assertEquals("user", responses[0].getBody().get("name").asText());
+        assertEquals(200, responses[1].getStatus());
+        assertEquals("Дрель", responses[1].getBody().get(0).get("name").asText());
+        assertEquals(400, responses[2].getStatus());
+        verify(bookingClient, never()).getOwnBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void entryBodyIsValidatedTest() {
+        SubResponseDto[] responses = batch(null, new BatchRequestDto(List.of(
+                new SubRequestDto("user", "POST", "/users", mapper.valueToTree(new UserDto(0L, "user", "not-email")))
+        ))).getBody();
+
+        assertEquals(400, responses[0].getStatus());
+        verify(userClient, never()).addUser(any());
+    }
+
+    @Test
+    void readsAfterWriteWaitForItTest() {
+        when(userClient.addUser(any())).thenReturn(completedFuture(ResponseEntity.status(HttpStatus.CREATED).build()));
+        when(userClient.getAllUsers()).thenReturn(completedFuture(ResponseEntity.ok(List.of())));
+
+        SubResponseDto[] responses = batch(null, new BatchRequestDto(List.of(
+                new SubRequestDto(null, "POST", "/users", mapper.valueToTree(new UserDto(0L, "user", "user@mail.ru"))),
+                new SubRequestDto(null, "GET", "/users", null)
+        ))).getBody();
+
+        assertEquals(201, responses[0].getStatus());
+        assertTrue(responses[0].getBody().isNull());
+        assertEquals(200, responses[1].getStatus());
+        assertEquals(0, responses[1].getBody().size());
+        InOrder order = inOrder(userClient);
+        order.verify(userClient).addUser(any());
+        order.verify(userClient).getAllUsers();
+    }
+
+    @Test
+    void entriesCarryCallerHeadersTest() {
+        List<String> traceIds = new ArrayList<>();
+        List<Long> remainingMillis = new ArrayList<>();
+        List<String> idempotencyKeys = new ArrayList<>();
+        when(userClient.addUser(any())).thenAnswer(invocation -> {
+            traceIds.add(TraceContext.traceId());
+            remainingMillis.add(RequestDeadline.remainingMillis());
+            idempotencyKeys.add(currentRequestHeader("Idempotency-Key"));
+            return completedFuture(ResponseEntity.status(HttpStatus.CREATED).build());
+        });
+        when(userClient.getAllUsers()).thenAnswer(invocation -> {
+            traceIds.add(TraceContext.traceId());
+            idempotencyKeys.add(currentRequestHeader("Idempotency-Key"));
+            return completedFuture(ResponseEntity.ok(List.of()));
+        });
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Trace-Id", "batch-trace");
+        headers.set("X-Request-Timeout", "3000");
+        headers.set("Idempotency-Key", "batch-key");
+
+        ResponseEntity<SubResponseDto[]> response = rest.postForEntity("/batch", new HttpEntity<>(new BatchRequestDto(List.of(
+                new SubRequestDto(null, "POST", "/users", mapper.valueToTree(new UserDto(0L, "first", "first@mail.ru"))),
+                new SubRequestDto(null, "POST", "/users", mapper.valueToTree(new UserDto(0L, "second", "second@mail.ru"))),
+                new SubRequestDto(null, "GET", "/users", null)
+        )), headers), SubResponseDto[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("batch-trace", "batch-trace", "batch-trace"), traceIds);
+        assertTrue(remainingMillis.stream().allMatch(millis -> millis > 0 && millis <= 3000));
+        assertNotNull(idempotencyKeys.get(0));
+        assertNotEquals(idempotencyKeys.get(0), idempotencyKeys.get(1));
+        assertNull(idempotencyKeys.get(2));
+    }
+
+    @Test
+    void largeEntryBodyTest() {
+        String name = "x".repeat(300 * 1024);
+        when(userClient.getAllUsers())
+                .thenReturn(completedFuture(ResponseEntity.ok(List.of(new UserDto(1L, name, "user@mail.ru")))));
+
+        SubResponseDto[] responses = batch(null, new BatchRequestDto(List.of(
+                new SubRequestDto(null, "GET", "/users", null)
+        ))).getBody();
+
+        assertEquals(200, responses[0].getStatus());
+        assertEquals(name, responses[0].getBody().get(0).get("name").asText());
+    }
+
+    @Test
+    void unsupportedEntryRejectsBatchTest() {
+        ResponseEntity<String> response = rest.postForEntity("/batch", new BatchRequestDto(List.of(
+                new SubRequestDto(null, "GET", "/users", null),
+                new SubRequestDto(null, "GET", "/batch", null)
+        )), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(userClient, never()).getAllUsers();
+    }
+
+    @Test
+    void entryPathWithAuthorityRejectsBatchTest() {
+        assertPathRejected("//evil.example.com/users");
+        assertPathRejected("http://evil.example.com/users");
+        assertPathRejected("/users//batch");
+    }
+
+    @Test
+    void entryPathTraversalRejectsBatchTest() {
+        assertPathRejected("/users/../batch");
+        assertPathRejected("/users/%2e%2e/actuator/env");
+        assertPathRejected("/users%2F..%2Fbatch");
+        assertPathRejected("/./batch");
+        assertPathRejected("/users;x=1/../batch");
+        assertPathRejected("/batch/");
+    }
+
+    @Test
+    void emptyBatchTest() {
+        ResponseEntity<String> response = rest.postForEntity("/batch", new BatchRequestDto(List.of()), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private ResponseEntity<SubResponseDto[]> batch(Long userId, BatchRequestDto request) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        ResponseEntity<SubResponseDto[]> response = rest.postForEntity("/batch", new HttpEntity<>(request, headers),
+                SubResponseDto[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response;
+    }
+
+    private static String currentRequestHeader(String name) {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest().getHeader(name);
+    }
+
+    private void assertPathRejected(String path) {
+        ResponseEntity<String> response = rest.postForEntity("/batch", new BatchRequestDto(List.of(
+                new SubRequestDto(null, "GET", "/users", null),
+                new SubRequestDto(null, "GET", path, null)
+        )), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), path);
+        verify(userClient, never()).getAllUsers();
+    }
+}
@@ -20,6 +20,8 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static ru.practicum.shareit.AsyncMockMvc.perform;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -57,7 +59,7 @@ class BookingControllerTest {
     void addBookingWithNullItemIdTest() throws Exception {
         BookingSimpleDto bookingSimpleDto = new BookingSimpleDto(0L, now.plusHours(1), now.plusHours(1), 0L, null, "");
 
-        mockMvc.perform(post("/bookings")
+        perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", 0L)
                         .content(mapper.writeValueAsString(bookingSimpleDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -72,7 +74,7 @@ class BookingControllerTest {
     void addBookingWithNullStartTest() throws Exception {
         BookingSimpleDto bookingSimpleDto = new BookingSimpleDto(0L, null, now.plusHours(1), 0L, 0L, "");
 
-        mockMvc.perform(post("/bookings")
+        perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", 0L)
                         .content(mapper.writeValueAsString(bookingSimpleDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -88,7 +90,7 @@ class BookingControllerTest {
 
         BookingSimpleDto bookingSimpleDto = new BookingSimpleDto(0L, now.plusHours(1), null, 0L, 0L, "");
 
-        mockMvc.perform(post("/bookings")
+        perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", 0L)
                         .content(mapper.writeValueAsString(bookingSimpleDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -103,7 +105,7 @@ class BookingControllerTest {
     void addBookingWithStartEqualsEndTest() throws Exception {
         BookingSimpleDto bookingSimpleDto = new BookingSimpleDto(0L, now.plusHours(1), now.plusHours(1), 0L, 0L, "");
 
-        mockMvc.perform(post("/bookings")
+        perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", 0L)
                         .content(mapper.writeValueAsString(bookingSimpleDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -118,7 +120,7 @@ class BookingControllerTest {
     void addBookingWithStartAfterEndTest() throws Exception {
         BookingSimpleDto bookingSimpleDto = new BookingSimpleDto(0L, now.plusHours(2), now.plusHours(1), 0L, 0L, "");
 
-        mockMvc.perform(post("/bookings")
+        perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", 0L)
                         .content(mapper.writeValueAsString(bookingSimpleDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -133,7 +135,7 @@ class BookingControllerTest {
     void addBookingWithStartInPastTest() throws Exception {
         BookingSimpleDto bookingSimpleDto = new BookingSimpleDto(0L, now.minusHours(1), now.plusHours(1), 0L, 0L, "");
 
-        mockMvc.perform(post("/bookings")
+        perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", 0L)
                         .content(mapper.writeValueAsString(bookingSimpleDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -146,9 +148,9 @@ class BookingControllerTest {
 
     @Test
     void addBookingTest() throws Exception {
-        when(bookingClient.addBooking(anyLong(), any())).thenReturn(ResponseEntity.ok(bookingDto));
+        when(bookingClient.addBooking(anyLong(), any())).thenReturn(completedFuture(ResponseEntity.ok(bookingDto)));
 
-        mockMvc.perform(post("/bookings")
+        perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", booker.getId())
                         .content(mapper.writeValueAsString(bookingSimpleDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -164,7 +166,7 @@ class BookingControllerTest {
 
     @Test
     void approveBookingValidationTest() throws Exception {
-        mockMvc.perform(patch("/bookings/1?approved=df")
+        perform(mockMvc, patch("/bookings/1?approved=df")
                         .header("X-Sharer-User-Id", owner.getId())
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -176,9 +178,9 @@ class BookingControllerTest {
 
     @Test
     void getBookingsNullStateValidationTest() throws Exception {
-        when(bookingClient.getOwnBookings(booker.getId(), "ALL", 0, 20)).thenReturn(ResponseEntity.ok(List.of(bookingDto)));
+        when(bookingClient.getOwnBookings(booker.getId(), "ALL", 0, 20)).thenReturn(completedFuture(ResponseEntity.ok(List.of(bookingDto))));
 
-        mockMvc.perform(get("/bookings/")
+        perform(mockMvc, get("/bookings/")
                 .header("X-Sharer-User-Id", booker.getId())
                 .characterEncoding(StandardCharsets.UTF_8)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -192,7 +194,7 @@ class BookingControllerTest {
 
     @Test
     void getBookingsWrongStateValidationTest() throws Exception {
-               mockMvc.perform(get("/bookings/?state=WrOnG")
+               perform(mockMvc, get("/bookings/?state=WrOnG")
                         .header("X-Sharer-User-Id", booker.getId())
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -204,7 +206,7 @@ class BookingControllerTest {
 
     @Test
     void getOwnerBookingsWrongStateValidationTest() throws Exception {
-        mockMvc.perform(get("/bookings/owner?state=WrOnG")
+        perform(mockMvc, get("/bookings/owner?state=WrOnG")
                         .header("X-Sharer-User-Id", owner.getId())
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -213,4 +215,45 @@ class BookingControllerTest {
 
         verify(bookingClient, never()).getOwnBookings(anyLong(), anyString(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsByCursorTest() throws Exception {
+        when(bookingClient.getOwnBookings(booker.getId(), "FUTURE", "QUxMOjE3MDAwMDAwMDA6MDo1", 10))
+                .thenReturn(completedFuture(ResponseEntity.ok(List.of(bookingDto))));
+
+        perform(mockMvc, get("/bookings?state=FUTURE&size=10&cursor=QUxMOjE3MDAwMDAwMDA6MDo1")
+                .header("X-Sharer-User-Id", booker.getId())
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(bookingClient, times(1)).getOwnBookings(booker.getId(), "FUTURE", "QUxMOjE3MDAwMDAwMDA6MDo1", 10);
+        verify(bookingClient, never()).getOwnBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getOwnerBookingsOfItemTest() throws Exception {
+        when(bookingClient.getBookingsForOwnItem(owner.getId(), item.getId(), "ALL", 0, 20))
+                .thenReturn(completedFuture(ResponseEntity.ok(List.of(bookingDto))));
+
+        perform(mockMvc, get("/bookings/owner?itemId=" + item.getId())
+                .header("X-Sharer-User-Id", owner.getId())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(bookingClient, never()).getBookingsForOwnItems(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getOwnerBookingsOfItemByCursorValidationTest() throws Exception {
+        perform(mockMvc, get("/bookings/owner?itemId=" + item.getId() + "&cursor=QUxMOjE3MDAwMDAwMDA6MDo1")
+                .header("X-Sharer-User-Id", owner.getId())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).getBookingsForOwnItem(anyLong(), anyLong(), anyString(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+import ru.practicum.shareit.coalescing.CoalescingInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingInterceptorTest {
+    private static final byte[] ITEM = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CompletableFuture<ResponseEntity<byte[]>> upstream = new CompletableFuture<>();
+    private final UpstreamTransport next = request -> {
+        calls.incrementAndGet();
+        return upstream;
+    };
+    private SimpleMeterRegistry registry;
+    private CoalescingInterceptor interceptor;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        interceptor = new CoalescingInterceptor(List.of("/items/{id:[0-9]+}", "/items/search"), registry);
+    }
+
+    @Test
+    void identicalGetsShareOneCallTest() {
+        CompletableFuture<ResponseEntity<byte[]>> first = interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        CompletableFuture<ResponseEntity<byte[]>> second = interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        upstream.complete(ResponseEntity.ok(ITEM));
+
+        assertEquals(1, calls.get());
+        assertSame(ITEM, first.join().getBody());
+        assertSame(ITEM, second.join().getBody());
+        assertEquals(1.0, registry.get(CoalescingInterceptor.COALESCED_METRIC)
+                .tag("endpoint", "/items/{id:[0-9]+}").counter().count());
+    }
+
+    @Test
+    void differentUsersAreNotCoalescedTest() {
+        interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        interceptor.intercept(get("/{id}", Map.of("id", 1L), 2L), next);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void differentParametersAreNotCoalescedTest() {
+        interceptor.intercept(get("/search?text={text}", Map.of("text", "дрель"), 1L), next);
+        interceptor.intercept(get("/search?text={text}", Map.of("text", "отвертка"), 1L), next);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void conditionalAndPlainGetsAreNotCoalescedTest() {
+        UpstreamRequest conditional = get("/{id}", Map.of("id", 1L), 1L);
+        conditional.getHeaders().setIfNoneMatch("\"1\"");
+        interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        interceptor.intercept(conditional, next);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void notConfiguredEndpointIsNotCoalescedTest() {
+        interceptor.intercept(get("", Map.of(), 1L), next);
+        interceptor.intercept(get("", Map.of(), 1L), next);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void completedCallIsNotReusedTest() {
+        interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        upstream.complete(ResponseEntity.ok(ITEM));
+        interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void failureIsSharedTest() {
+        CompletableFuture<ResponseEntity<byte[]>> first = interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        CompletableFuture<ResponseEntity<byte[]>> second = interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        upstream.completeExceptionally(new ResourceAccessException("I/O error"));
+
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertTrue(e.getCause() instanceof ResourceAccessException);
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    void waiterCancellationDoesNotAffectOthersTest() {
+        CompletableFuture<ResponseEntity<byte[]>> first = interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        CompletableFuture<ResponseEntity<byte[]>> second = interceptor.intercept(get("/{id}", Map.of("id", 1L), 1L), next);
+        second.cancel(true);
+        upstream.complete(ResponseEntity.ok(ITEM));
+
+        assertSame(ITEM, first.join().getBody());
+    }
+
+    private static UpstreamRequest get(String path, Map<String, Object> parameters, long userId) {
+        return UpstreamRequest.builder()
+                .prefix("/items")
+                .method(HttpMethod.GET)
+                .path(path)
+                .parameters(parameters)
+                .headers(new HttpHeaders())
+                .userId(userId)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.aggregation.CompositeView;
+import ru.practicum.shareit.aggregation.CompositeViewAggregator;
+import ru.practicum.shareit.aggregation.Section;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositeViewAggregatorTest {
+    private final CompositeViewAggregator aggregator = new CompositeViewAggregator(new ObjectMapper());
+    private final List<String> started = new ArrayList<>();
+
+    @Test
+    void independentSectionsRunConcurrentlyTest() {
+        CompletableFuture<ResponseEntity<Object>> first = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> second = new CompletableFuture<>();
+        CompositeView<Void> view = CompositeView.of("test",
+                Section.of("first", (context, dependencies) -> started("first", first)),
+                Section.of("second", (context, dependencies) -> started("second", second)));
+
+        CompletableFuture<ResponseEntity<Object>> response = aggregator.render(view, null);
+
+        assertEquals(List.of("first", "second"), started);
+        assertFalse(response.isDone());
+        second.complete(json("[2]"));
+        first.complete(json("{\"id\":1}"));
+        JsonNode body = (JsonNode) response.join().getBody();
+        assertEquals(1, body.path("first").path("id").asInt());
+        assertEquals(2, body.path("second").path(0).asInt());
+        assertFalse(body.has("errors"));
+    }
+
+    @Test
+    void dependentSectionGetsDependencyBodyTest() {
+        CompletableFuture<ResponseEntity<Object>> item = new CompletableFuture<>();
+        CompositeView<Void> view = CompositeView.of("test",
+                Section.of("item", (context, dependencies) -> started("item", item)),
+                Section.<Void>of("request", (context, dependencies) -> started("request",
+                        CompletableFuture.completedFuture(json("{\"id\":" + dependencies.get("item").path("requestId") + "}"))))
+                        .dependsOn("item"));
+
+        CompletableFuture<ResponseEntity<Object>> response = aggregator.render(view, null);
+
+        assertEquals(List.of("item"), started);
+        item.complete(json("{\"id\":1,\"requestId\":7}"));
+        assertEquals(7, ((JsonNode) response.join().getBody()).path("request").path("id").asInt());
+    }
+
+    @Test
+    void optionalSectionFailuresAreReportedPerSectionTest() {
+        CompositeView<Void> view = CompositeView.of("test",
+                Section.of("item", (context, dependencies) -> CompletableFuture.completedFuture(json("{\"id\":1}"))),
+                Section.of("bookings", (context, dependencies) ->
+                        CompletableFuture.failedFuture(new TimeoutException("медленно"))),
+                Section.of("comments", (context, dependencies) -> CompletableFuture.completedFuture(
+                        new ResponseEntity<>("{\"error\":\"сбой\"}".getBytes(StandardCharsets.UTF_8),
+                                HttpStatus.INTERNAL_SERVER_ERROR))),
+                Section.<Void>of("request", (context, dependencies) -> {
+                    throw new IllegalStateException("не должна вызываться");
+                }).dependsOn("bookings"),
+                Section.of("empty", (context, dependencies) -> null));
+
+        ResponseEntity<Object> response = aggregator.render(view, null).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode body = (JsonNode) response.getBody();
+        assertEquals(1, body.path("item").path("id").asInt());
+        assertTrue(body.get("bookings").isNull());
+        assertTrue(body.get("empty").isNull());
+        assertEquals(504, body.path("errors").path("bookings").path("status").asInt());
+        assertEquals(500, body.path("errors").path("comments").path("status").asInt());
+        assertEquals("сбой", body.path("errors").path("comments").path("error").path("error").asText());
+        assertEquals(424, body.path("errors").path("request").path("status").asInt());
+        assertFalse(body.path("errors").has("empty"));
+    }
+
+    @Test
+    void requiredSectionFailureFailsWholeViewTest() {
+        CompositeView<Void> notFound = CompositeView.of("test",
+                Section.<Void>of("item", (context, dependencies) -> CompletableFuture.completedFuture(
+                        new ResponseEntity<>("{\"Предмет не найден\":\"id:1\"}".getBytes(StandardCharsets.UTF_8),
+                                HttpStatus.NOT_FOUND))).required(),
+                Section.of("bookings", (context, dependencies) -> CompletableFuture.completedFuture(json("[]"))));
+        CompositeView<Void> failed = CompositeView.of("test",
+                Section.<Void>of("item", (context, dependencies) ->
+                        CompletableFuture.failedFuture(new TimeoutException("медленно"))).required());
+
+        ResponseEntity<Object> response = aggregator.render(notFound, null).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("id:1", ((JsonNode) response.getBody()).path("Предмет не найден").asText());
+        CompletionException e = assertThrows(CompletionException.class, () -> aggregator.render(failed, null).join());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void undeclaredDependencyIsRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> CompositeView.of("test",
+                Section.<Void>of("request", (context, dependencies) -> null).dependsOn("item"),
+                Section.<Void>of("item", (context, dependencies) -> null)));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> started(String name, CompletableFuture<ResponseEntity<Object>> call) {
+        started.add(name);
+        return call;
+    }
+
+    private static ResponseEntity<Object> json(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
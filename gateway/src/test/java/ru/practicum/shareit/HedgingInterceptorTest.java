@@ -0,0 +1,156 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+import ru.practicum.shareit.hedging.HedgingBudget;
+import ru.practicum.shareit.hedging.HedgingInterceptor;
+import ru.practicum.shareit.hedging.HedgingProperties;
+import ru.practicum.shareit.hedging.LatencyWindow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingInterceptorTest {
+    private static final byte[] ITEM = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<CompletableFuture<ResponseEntity<byte[]>>> attempts = new CopyOnWriteArrayList<>();
+    private final UpstreamTransport next = request -> {
+        CompletableFuture<ResponseEntity<byte[]>> attempt = new CompletableFuture<>();
+        attempts.add(attempt);
+        return attempt;
+    };
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HedgingProperties properties;
+
+    @BeforeEach
+    void init() {
+        properties = new HedgingProperties();
+        properties.setMaxDelay(Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void fastResponseIsNotHedgedTest() throws InterruptedException {
+        CompletableFuture<ResponseEntity<byte[]>> response = interceptor(100).intercept(get(), next);
+        attempts.get(0).complete(ResponseEntity.ok(ITEM));
+        Thread.sleep(60);
+
+        assertSame(ITEM, response.join().getBody());
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void slowResponseIsHedgedAndFirstAnswerWinsTest() throws InterruptedException {
+        CompletableFuture<ResponseEntity<byte[]>> response = interceptor(100).intercept(get(), next);
+        awaitAttempts(2);
+        attempts.get(1).complete(ResponseEntity.ok(ITEM));
+        attempts.get(0).complete(ResponseEntity.ok(new byte[0]));
+
+        assertSame(ITEM, response.join().getBody());
+        assertEquals(1.0, registry.get(HedgingInterceptor.HEDGES_METRIC)
+                .tags("client", "items", "outcome", "won").counter().count());
+    }
+
+    @Test
+    void hedgesStayWithinBudgetTest() throws InterruptedException {
+        HedgingInterceptor interceptor = interceptor(50);
+        interceptor.intercept(get(), next);
+        interceptor.intercept(get(), next);
+        Thread.sleep(60);
+
+        assertEquals(3, attempts.size());
+        assertEquals(1.0, registry.get(HedgingInterceptor.HEDGES_METRIC)
+                .tags("client", "items", "outcome", "budget-exhausted").counter().count());
+    }
+
+    @Test
+    void failedPrimaryWaitsForHedgeTest() throws InterruptedException {
+        CompletableFuture<ResponseEntity<byte[]>> response = interceptor(100).intercept(get(), next);
+        awaitAttempts(2);
+        attempts.get(0).completeExceptionally(new ResourceAccessException("Connection reset"));
+
+        assertFalse(response.isDone());
+        attempts.get(1).complete(ResponseEntity.ok(ITEM));
+        assertSame(ITEM, response.join().getBody());
+    }
+
+    @Test
+    void failureIsReportedWhenNoAttemptSucceedsTest() {
+        CompletableFuture<ResponseEntity<byte[]>> response = interceptor(0).intercept(get(), next);
+        attempts.get(0).completeExceptionally(new ResourceAccessException("Connection reset"));
+
+        CompletionException e = assertThrows(CompletionException.class, response::join);
+        assertInstanceOf(ResourceAccessException.class, e.getCause());
+    }
+
+    @Test
+    void writesAreNotHedgedTest() throws InterruptedException {
+        UpstreamRequest post = get().toBuilder().method(HttpMethod.POST).path("").build();
+        interceptor(100).intercept(post, next);
+        Thread.sleep(60);
+
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void delayFollowsLatencyPercentileTest() {
+        LatencyWindow window = new LatencyWindow(100, 90, 1, 1_000, 10);
+        assertEquals(1_000, window.delayNanos());
+
+        for (int i = 1; i <= 100; i++) {
+            window.record(i);
+        }
+        assertEquals(90, window.delayNanos());
+
+        for (int i = 0; i < 100; i++) {
+            window.record(5_000);
+        }
+        assertEquals(1_000, window.delayNanos());
+    }
+
+    private HedgingInterceptor interceptor(int budgetPercent) {
+        return new HedgingInterceptor(properties, new HedgingBudget(budgetPercent, 10), scheduler, registry);
+    }
+
+    private void awaitAttempts(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (attempts.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, attempts.size());
+    }
+
+    private static UpstreamRequest get() {
+        return UpstreamRequest.builder()
+                .prefix("/items")
+                .method(HttpMethod.GET)
+                .path("/{id}")
+                .parameters(Map.of("id", 1L))
+                .headers(new HttpHeaders())
+                .userId(1L)
+                .build();
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -14,14 +16,18 @@ import ru.practicum.shareit.item.CommentDto;
 import ru.practicum.shareit.item.ItemDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static ru.practicum.shareit.AsyncMockMvc.perform;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,9 +44,9 @@ class ItemControllerTest {
 
     @Test
     void addItemTest() throws Exception {
-        when(itemClient.addItem(anyLong(), any(ItemDto.class))).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.addItem(anyLong(), any(ItemDto.class))).thenReturn(completedFuture(ResponseEntity.ok(itemDto)));
 
-        mockMvc.perform(post("/items")
+        perform(mockMvc, post("/items")
                         .header("X-Sharer-User-Id", uid)
                         .content(mapper.writeValueAsString(itemDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -54,12 +60,40 @@ class ItemControllerTest {
         verify(itemClient, times(1)).addItem(anyLong(), any(ItemDto.class));
     }
 
+    @Test
+    void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 8, 0);
+        LocalDateTime to = from.plusHours(6);
+        when(itemClient.getAvailability(1L, uid, from, to)).thenReturn(completedFuture(ResponseEntity.ok(
+                "{\"itemId\":1,\"free\":[],\"busy\":[{\"start\":\"2030-01-01T08:00:00\",\"end\":\"2030-01-01T14:00:00\"}]}")));
+
+        perform(mockMvc, get("/items/1/availability?from=2030-01-01T08:00:00&to=2030-01-01T14:00:00")
+                        .header("X-Sharer-User-Id", uid)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy", hasSize(1)));
+
+        verify(itemClient, times(1)).getAvailability(1L, uid, from, to);
+    }
+
+    @Test
+    void getAvailabilityInvalidPeriodTest() throws Exception {
+        perform(mockMvc, get("/items/1/availability?from=2030-01-01T14:00:00&to=2030-01-01T08:00:00")
+                        .header("X-Sharer-User-Id", uid))
+                .andExpect(status().isBadRequest());
+        perform(mockMvc, get("/items/1/availability?from=2030-01-01T14:00:00")
+                        .header("X-Sharer-User-Id", uid))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getAvailability(anyLong(), anyLong(), any(), any());
+    }
+
     @Test
     void addItemDtoValidationTest() throws Exception {
-        when(itemClient.addItem(anyLong(), any(ItemDto.class))).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.addItem(anyLong(), any(ItemDto.class))).thenReturn(completedFuture(ResponseEntity.ok(itemDto)));
 
         itemDto.setName("");
-        mockMvc.perform(post("/items")
+        perform(mockMvc, post("/items")
                         .header("X-Sharer-User-Id", uid)
                         .content(mapper.writeValueAsString(itemDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -69,7 +103,7 @@ class ItemControllerTest {
 
         itemDto.setName("Item1");
         itemDto.setDescription("");
-        mockMvc.perform(post("/items")
+        perform(mockMvc, post("/items")
                         .header("X-Sharer-User-Id", uid)
                         .content(mapper.writeValueAsString(itemDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -79,7 +113,7 @@ class ItemControllerTest {
 
         itemDto.setDescription("Item1 description");
         itemDto.setAvailable(null);
-        mockMvc.perform(post("/items")
+        perform(mockMvc, post("/items")
                         .header("X-Sharer-User-Id", uid)
                         .content(mapper.writeValueAsString(itemDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -93,9 +127,9 @@ class ItemControllerTest {
 
     @Test
     void getItemTest() throws Exception {
-        when(itemClient.getItem(anyLong(), anyLong())).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.getItem(anyLong(), anyLong())).thenReturn(completedFuture(ResponseEntity.ok(itemDto)));
 
-        mockMvc.perform(get("/items/1")
+        perform(mockMvc, get("/items/1")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -108,12 +142,41 @@ class ItemControllerTest {
         verify(itemClient, times(1)).getItem(anyLong(), anyLong());
     }
 
+    @Test
+    void getItemPassThroughBodyTest() throws Exception {
+        byte[] body = mapper.writeValueAsBytes(itemDto);
+        when(itemClient.getItem(anyLong(), anyLong())).thenReturn(completedFuture(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)));
+
+        perform(mockMvc, get("/items/1")
+                        .header("X-Sharer-User-Id", uid)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(body))
+                .andExpect(jsonPath("$.name", is(itemDto.getName())));
+    }
+
+    @Test
+    void getItemCircuitOpenTest() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("items");
+        circuitBreaker.transitionToOpenState();
+        when(itemClient.getItem(anyLong(), anyLong()))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+
+        perform(mockMvc, get("/items/1")
+                        .header("X-Sharer-User-Id", uid)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     void updateItemTest() throws Exception {
         itemDto.setName("UpdatedName");
-        when(itemClient.updateItem(anyLong(), any(ItemDto.class))).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.updateItem(anyLong(), any(ItemDto.class))).thenReturn(completedFuture(ResponseEntity.ok(itemDto)));
 
-        mockMvc.perform(patch("/items/1")
+        perform(mockMvc, patch("/items/1")
                         .header("X-Sharer-User-Id", uid)
                         .content(mapper.writeValueAsString(itemDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -131,9 +194,9 @@ class ItemControllerTest {
     @Test
     void getItemsTest() throws Exception {
         ItemDto itemDto2 = new ItemDto(2L, "Item2", "Item2 description", false, null, null, null, null);
-        when(itemClient.getAllItems(anyLong(), anyInt(), anyInt())).thenReturn(ResponseEntity.ok(List.of(itemDto, itemDto2)));
+        when(itemClient.getAllItems(anyLong(), anyInt(), anyInt())).thenReturn(completedFuture(ResponseEntity.ok(List.of(itemDto, itemDto2))));
 
-        mockMvc.perform(get("/items?from=0&size=20")
+        perform(mockMvc, get("/items?from=0&size=20")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -149,16 +212,16 @@ class ItemControllerTest {
 
     @Test
     void invalidPaginationTest() throws Exception {
-        when(itemClient.getAllItems(anyLong(), anyInt(), anyInt())).thenReturn(ResponseEntity.ok(null));
+        when(itemClient.getAllItems(anyLong(), anyInt(), anyInt())).thenReturn(completedFuture(ResponseEntity.ok(null)));
 
-        mockMvc.perform(get("/items?from=-1&size=20")
+        perform(mockMvc, get("/items?from=-1&size=20")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
 
-        mockMvc.perform(get("/items?from=0&size=0")
+        perform(mockMvc, get("/items?from=0&size=0")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -171,9 +234,9 @@ class ItemControllerTest {
 
     @Test
     void validationSearchItemTest() throws Exception {
-        when(itemClient.findAvailableItems(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(ResponseEntity.ok(List.of(itemDto)));
+        when(itemClient.findAvailableItems(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(completedFuture(ResponseEntity.ok(List.of(itemDto))));
 
-        mockMvc.perform(get("/items/search?text=test&from=-1&size=20")
+        perform(mockMvc, get("/items/search?text=test&from=-1&size=20")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -183,10 +246,38 @@ class ItemControllerTest {
         verify(itemClient, never()).findAvailableItems(anyLong(), anyString(), anyInt(), anyInt());
     }
 
+    @Test
+    void searchFreeItemsTest() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 7, 10, 0);
+        when(itemClient.findAvailableItems(uid, "дрель", start, end, 0, 20))
+                .thenReturn(completedFuture(ResponseEntity.ok(List.of(itemDto))));
+
+        perform(mockMvc, get("/items/search?text=дрель&start=2030-01-05T10:00:00&end=2030-01-07T10:00:00")
+                        .header("X-Sharer-User-Id", uid)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(itemClient, never()).findAvailableItems(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void validationSearchItemPeriodTest() throws Exception {
+        perform(mockMvc, get("/items/search?text=test&start=2030-01-05T10:00:00")
+                        .header("X-Sharer-User-Id", uid))
+                .andExpect(status().isBadRequest());
+        perform(mockMvc, get("/items/search?text=test&start=2030-01-05T10:00:00&end=2030-01-05T10:00:00")
+                        .header("X-Sharer-User-Id", uid))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).findAvailableItems(anyLong(), anyString(), any(), any(), anyInt(), anyInt());
+    }
+
     @Test
     void validationSearchItemEmptyStringTest() throws Exception {
 
-        mockMvc.perform(get("/items/search?text=&from=0&size=20")
+        perform(mockMvc, get("/items/search?text=&from=0&size=20")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -200,7 +291,7 @@ class ItemControllerTest {
     @Test
     void validationSearchItemNullStringTest() throws Exception {
 
-        mockMvc.perform(get("/items/search?from=0&size=20")
+        perform(mockMvc, get("/items/search?from=0&size=20")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -214,9 +305,9 @@ class ItemControllerTest {
     @Test
     void addCommentValidationTest() throws Exception {
         CommentDto commentDto = new CommentDto(null, "", itemDto.getId(), "comment author", null);
-        when(itemClient.addComment(anyLong(), anyLong(), any(CommentDto.class))).thenReturn(ResponseEntity.ok(null));
+        when(itemClient.addComment(anyLong(), anyLong(), any(CommentDto.class))).thenReturn(completedFuture(ResponseEntity.ok(null)));
 
-        mockMvc.perform(post("/items/1/comment")
+        perform(mockMvc, post("/items/1/comment")
                         .header("X-Sharer-User-Id", uid)
                         .content(mapper.writeValueAsString(commentDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -230,7 +321,7 @@ class ItemControllerTest {
     @Test
     void addItemWithoutXSharerUserIdHeaderTest() throws Exception {
 
-        mockMvc.perform(post("/items")
+        perform(mockMvc, post("/items")
                         .content(mapper.writeValueAsString(itemDto))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,99 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.aggregation.CompositeViewAggregator;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemPageController;
+import ru.practicum.shareit.item.ItemPageView;
+import ru.practicum.shareit.request.ItemRequestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.AsyncMockMvc.perform;
+
+@WebMvcTest(controllers = ItemPageController.class)
+@Import({CompositeViewAggregator.class, ItemPageView.class})
+class ItemPageControllerTest {
+    private static final String ITEM = "{\"id\":1,\"name\":\"Дрель\",\"requestId\":3}";
+    private static final String BOOKINGS = "[{\"id\":10,\"item\":{\"id\":1}}]";
+    private static final String REQUEST = "{\"id\":3,\"description\":\"Нужна дрель\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ItemClient itemClient;
+    @MockBean
+    private BookingClient bookingClient;
+    @MockBean
+    private ItemRequestClient itemRequestClient;
+
+    @Test
+    void itemPageTest() throws Exception {
+        when(itemClient.getItem(1L, 1L)).thenReturn(completedFuture(json(ITEM)));
+        when(bookingClient.getBookingsForOwnItem(1L, 1L, "ALL", 0, 20)).thenReturn(completedFuture(json(BOOKINGS)));
+        when(itemRequestClient.getItemRequest(1L, 3L)).thenReturn(completedFuture(json(REQUEST)));
+
+        perform(mockMvc, get("/items/1/page").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name", is("Дрель")))
+                .andExpect(jsonPath("$.ownerBookings", hasSize(1)))
+                .andExpect(jsonPath("$.ownerBookings[0].id", is(10)))
+                .andExpect(jsonPath("$.request.description", is("Нужна дрель")))
+                .andExpect(jsonPath("$.errors").doesNotExist());
+    }
+
+    @Test
+    void failedBookingsSectionTest() throws Exception {
+        when(itemClient.getItem(1L, 1L)).thenReturn(completedFuture(json("{\"id\":1,\"requestId\":null}")));
+        when(bookingClient.getBookingsForOwnItem(1L, 1L, "ALL", 0, 20))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("сбой")));
+
+        perform(mockMvc, get("/items/1/page").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.id", is(1)))
+                .andExpect(jsonPath("$.ownerBookings", nullValue()))
+                .andExpect(jsonPath("$.request", nullValue()))
+                .andExpect(jsonPath("$.errors.ownerBookings.status", is(502)));
+
+        verify(itemRequestClient, never()).getItemRequest(anyLong(), anyLong());
+    }
+
+    @Test
+    void missingItemTest() throws Exception {
+        when(itemClient.getItem(1L, 1L)).thenReturn(completedFuture(new ResponseEntity<>(
+                "{\"Предмет не найден\":\"Не найден предмет с id:1\"}".getBytes(StandardCharsets.UTF_8),
+                HttpStatus.NOT_FOUND)));
+        when(bookingClient.getBookingsForOwnItem(1L, 1L, "ALL", 0, 20)).thenReturn(completedFuture(json("[]")));
+
+        perform(mockMvc, get("/items/1/page").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void invalidPaginationTest() throws Exception {
+        perform(mockMvc, get("/items/1/page?size=0").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static ResponseEntity<Object> json(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
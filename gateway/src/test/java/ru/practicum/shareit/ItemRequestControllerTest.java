@@ -14,6 +14,7 @@ import ru.practicum.shareit.request.ItemRequestDto;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
+import static ru.practicum.shareit.AsyncMockMvc.perform;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -36,7 +37,7 @@ class ItemRequestControllerTest {
     void addItemRequestWithEmptyDescriptionTest() throws Exception {
         ItemRequestDto requestDto = new ItemRequestDto(0L, "", LocalDateTime.now(), null);
 
-        mockMvc.perform(post("/requests")
+        perform(mockMvc, post("/requests")
                         .header("X-Sharer-User-Id", uid)
                         .content(mapper.writeValueAsString(requestDto))
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -50,7 +51,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getAllWithNegativeFromTest() throws Exception {
-        mockMvc.perform(get("/requests/all?from=-1&size=1")
+        perform(mockMvc, get("/requests/all?from=-1&size=1")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -62,7 +63,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getAllWithZeroPageSizeErrorTest() throws Exception {
-        mockMvc.perform(get("/requests/all?from=0&size=0")
+        perform(mockMvc, get("/requests/all?from=0&size=0")
                         .header("X-Sharer-User-Id", uid)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+import ru.practicum.shareit.knownusers.KnownUsersInterceptor;
+import ru.practicum.shareit.knownusers.KnownUsersProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnownUsersInterceptorTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private final UpstreamTransport next = request -> {
+        calls.incrementAndGet();
+        return CompletableFuture.completedFuture(ResponseEntity.ok(new byte[0]));
+    };
+    private String userIds = "[1,2,4]";
+    private SimpleMeterRegistry registry;
+    private KnownUsersInterceptor interceptor;
+
+    @BeforeEach
+    void init() {
+        registry = new SimpleMeterRegistry();
+        UpstreamTransport base = request -> {
+            assertEquals("/users/ids", request.getUriTemplate());
+            refreshes.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.ok(userIds.getBytes(StandardCharsets.UTF_8)));
+        };
+        interceptor = new KnownUsersInterceptor(base, new KnownUsersProperties().getExemptPaths(), new ObjectMapper(),
+                registry);
+    }
+
+    @Test
+    void everyUserPassesBeforeFirstRefreshTest() {
+        assertEquals(HttpStatus.OK, interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 3L), next).join()
+                .getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void unknownUserIsRejectedLocallyTest() {
+        interceptor.refresh().join();
+
+        ResponseEntity<byte[]> response = interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 3L), next).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("Не найден пользователь с id:3"));
+        assertEquals(0, calls.get());
+        assertEquals(1.0, registry.get(KnownUsersInterceptor.REJECTED_METRIC).counter().count());
+        assertEquals(HttpStatus.NOT_FOUND, interceptor.intercept(request(HttpMethod.GET, "/bookings", "", -1L), next)
+                .join().getStatusCode());
+    }
+
+    @Test
+    void knownAndNewerUsersPassTest() {
+        interceptor.refresh().join();
+
+        interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 2L), next).join();
+        // Created after the refresh, possibly through another gateway
+        interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 5L), next).join();
+        interceptor.intercept(request(HttpMethod.GET, "/users", "/3", null), next).join();
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void exemptPathsPassTest() {
+        interceptor.refresh().join();
+
+        interceptor.intercept(request(HttpMethod.GET, "/items", "/1", 3L), next).join();
+        interceptor.intercept(request(HttpMethod.GET, "/items", "/search", 3L), next).join();
+        interceptor.intercept(request(HttpMethod.GET, "/items", "/1/availability", 3L), next).join();
+        ResponseEntity<byte[]> comment = interceptor.intercept(request(HttpMethod.POST, "/items", "/1/comment", 3L), next)
+                .join();
+
+        assertEquals(3, calls.get());
+        assertEquals(HttpStatus.NOT_FOUND, comment.getStatusCode());
+    }
+
+    @Test
+    void deletedUserIsRejectedRightAwayTest() {
+        interceptor.refresh().join();
+        userIds = "[1,4]";
+
+        interceptor.intercept(request(HttpMethod.DELETE, "/users", "/2", null), next).join();
+
+        assertEquals(2, refreshes.get());
+        assertEquals(HttpStatus.NOT_FOUND, interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 2L), next)
+                .join().getStatusCode());
+    }
+
+    @Test
+    void deletedNewestUserStaysUnknownAfterRefreshTest() {
+        interceptor.refresh().join();
+        userIds = "[1,2]";
+
+        interceptor.intercept(request(HttpMethod.DELETE, "/users", "/4", null), next).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 4L), next)
+                .join().getStatusCode());
+    }
+
+    @Test
+    void createdUserRefreshesIdsTest() {
+        interceptor.refresh().join();
+        userIds = "[1,2,4,5]";
+
+        interceptor.intercept(request(HttpMethod.POST, "/users", "", null), next).join();
+
+        assertEquals(2, refreshes.get());
+        assertEquals(HttpStatus.NOT_FOUND, interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 3L), next)
+                .join().getStatusCode());
+        assertEquals(HttpStatus.OK, interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 5L), next)
+                .join().getStatusCode());
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousIdsTest() {
+        interceptor.refresh().join();
+        userIds = "not json";
+
+        interceptor.refresh().join();
+
+        assertEquals(HttpStatus.NOT_FOUND, interceptor.intercept(request(HttpMethod.GET, "/bookings", "", 3L), next)
+                .join().getStatusCode());
+    }
+
+    private static UpstreamRequest request(HttpMethod method, String prefix, String path, Long userId) {
+        return UpstreamRequest.builder()
+                .prefix(prefix)
+                .method(method)
+                .path(path)
+                .headers(new HttpHeaders())
+                .userId(userId)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.metrics.LatencyMetricsConfiguration;
+import ru.practicum.shareit.metrics.LocalTimingInterceptor;
+import ru.practicum.shareit.metrics.UpstreamTimingInterceptor;
+
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.AsyncMockMvc.perform;
+
+@WebMvcTest(controllers = BookingController.class)
+@Import({LatencyMetricsConfiguration.class, LatencyMetricsTest.RegistryConfiguration.class})
+class LatencyMetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private UpstreamTimingInterceptor upstreamTimingInterceptor;
+    @MockBean
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void init() {
+        registry.clear();
+    }
+
+    @AfterEach
+    void reset() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void forwardedRequestIsTimedByRouteTest() throws Exception {
+        when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(completedFuture(ResponseEntity.ok("{}")));
+
+        perform(mockMvc, get("/bookings/1").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+
+        Timer local = registry.get(LocalTimingInterceptor.LOCAL_METRIC)
+                .tags("route", "/bookings/{bookingId}", "method", "GET", "status", "200", "outcome", "success")
+                .timer();
+        assertEquals(1, local.count());
+    }
+
+    @Test
+    void requestRejectedByValidationIsTimedTest() throws Exception {
+        perform(mockMvc, post("/bookings")
+                .header("X-Sharer-User-Id", 1)
+                .contentType("application/json")
+                .content("{\"itemId\":null}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, registry.get(LocalTimingInterceptor.LOCAL_METRIC)
+                .tags("route", "/bookings", "status", "400", "outcome", "client-error")
+                .timer().count());
+    }
+
+    @Test
+    void upstreamCallIsTimedWithStatusTest() {
+        bindRoute("/bookings/{bookingId}");
+
+        upstreamTimingInterceptor.intercept(request(), r -> completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new byte[0]))).join();
+
+        assertEquals(1, registry.get(UpstreamTimingInterceptor.UPSTREAM_METRIC)
+                .tags("route", "/bookings/{bookingId}", "method", "GET", "status", "404", "outcome", "client-error")
+                .timer().count());
+    }
+
+    @Test
+    void rejectedUpstreamCallIsTimedTest() {
+        bindRoute("/bookings/{bookingId}");
+        CompletableFuture<ResponseEntity<byte[]>> failed = CompletableFuture.failedFuture(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("bookings")));
+
+        CompletableFuture<ResponseEntity<byte[]>> response = upstreamTimingInterceptor.intercept(request(), r -> failed);
+
+        assertThrows(Exception.class, response::join);
+        assertEquals(1, registry.get(UpstreamTimingInterceptor.UPSTREAM_METRIC)
+                .tags("status", "none", "outcome", "rejected")
+                .timer().count());
+    }
+
+    private static void bindRoute(String route) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+    }
+
+    private static UpstreamRequest request() {
+        return UpstreamRequest.builder()
+                .prefix("/bookings")
+                .method(HttpMethod.GET)
+                .path("/1")
+                .headers(new HttpHeaders())
+                .userId(1L)
+                .build();
+    }
+
+    @TestConfiguration
+    static class RegistryConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
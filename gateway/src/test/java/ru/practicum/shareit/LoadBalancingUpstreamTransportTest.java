@@ -0,0 +1,223 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.balancing.BalancingStrategy;
+import ru.practicum.shareit.balancing.LoadBalancerProperties;
+import ru.practicum.shareit.balancing.LoadBalancingUpstreamTransport;
+import ru.practicum.shareit.client.RestTemplateUpstreamTransport;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancingUpstreamTransportTest {
+    private final List<StandIn> servers = new ArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LoadBalancerProperties properties;
+    private LoadBalancingUpstreamTransport transport;
+
+    @BeforeEach
+    void init() {
+        properties = new LoadBalancerProperties();
+        properties.setConsecutiveFailures(3);
+        properties.setProbeInterval(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (transport != null) {
+            transport.destroy();
+        }
+        servers.forEach(server -> server.http.stop(0));
+    }
+
+    @Test
+    void callsAreSpreadOverInstancesTest() throws IOException {
+        start(3);
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(HttpStatus.OK, transport.exchange(get()).join().getStatusCode());
+        }
+
+        servers.forEach(server -> assertTrue(server.calls.get() > 0));
+        assertEquals(30, servers.stream().mapToInt(server -> server.calls.get()).sum());
+    }
+
+    @Test
+    void failingInstanceIsEjectedTest() throws IOException {
+        start(2);
+        servers.get(0).status = 503;
+        servers.get(0).healthStatus = 503;
+
+        for (int i = 0; i < 20; i++) {
+            transport.exchange(get()).join();
+        }
+        int callsAfterEjection = servers.get(0).calls.get();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(HttpStatus.OK, transport.exchange(get()).join().getStatusCode());
+        }
+
+        assertEquals(3, callsAfterEjection);
+        assertEquals(3, servers.get(0).calls.get());
+        assertEquals(List.of(servers.get(1).url), transport.getHealthyUrls());
+        assertEquals(1.0, registry.get(LoadBalancingUpstreamTransport.EJECTIONS_METRIC)
+                .tag("instance", servers.get(0).url).counter().count());
+        assertEquals(0.0, registry.get(LoadBalancingUpstreamTransport.HEALTHY_METRIC)
+                .tag("instance", servers.get(0).url).gauge().value());
+    }
+
+    @Test
+    void ejectedInstanceReturnsAfterSuccessfulProbeTest() throws IOException, InterruptedException {
+        start(2);
+        servers.get(0).status = 503;
+        servers.get(0).healthStatus = 503;
+        for (int i = 0; i < 20; i++) {
+            transport.exchange(get()).join();
+        }
+        Thread.sleep(150);
+        assertEquals(1, transport.getHealthyUrls().size());
+
+        servers.get(0).status = 200;
+        servers.get(0).healthStatus = 200;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (transport.getHealthyUrls().size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(2, transport.getHealthyUrls().size());
+    }
+
+    @Test
+    void notMoreThanHalfOfInstancesAreEjectedTest() throws IOException {
+        start(2);
+        servers.forEach(server -> {
+            server.status = 503;
+            server.healthStatus = 503;
+        });
+
+        for (int i = 0; i < 20; i++) {
+            transport.exchange(get()).join();
+        }
+
+        assertEquals(1, transport.getHealthyUrls().size());
+    }
+
+    @Test
+    void leastOutstandingInstanceIsChosenTest() {
+        List<CompletableFuture<ResponseEntity<byte[]>>> busy = new ArrayList<>();
+        AtomicInteger idleCalls = new AtomicInteger();
+        transport = new LoadBalancingUpstreamTransport(List.of("busy", "idle"), url -> request -> {
+            if (url.equals("idle")) {
+                idleCalls.incrementAndGet();
+                return CompletableFuture.completedFuture(ResponseEntity.ok(new byte[0]));
+            }
+            CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+            busy.add(call);
+            return call;
+        }, properties, registry);
+
+        for (int i = 0; i < 10; i++) {
+            transport.exchange(get());
+        }
+
+        assertEquals(1, busy.size());
+        assertEquals(9, idleCalls.get());
+        assertEquals(1.0, registry.get(LoadBalancingUpstreamTransport.OUTSTANDING_METRIC)
+                .tag("instance", "busy").gauge().value());
+    }
+
+    @Test
+    void powerOfTwoChoicesSpreadsCallsTest() throws IOException {
+        properties.setStrategy(BalancingStrategy.POWER_OF_TWO_CHOICES);
+        start(3);
+
+        for (int i = 0; i < 60; i++) {
+            transport.exchange(get()).join();
+        }
+
+        servers.forEach(server -> assertTrue(server.calls.get() > 0));
+    }
+
+    private void start(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            servers.add(new StandIn());
+        }
+        transport = new LoadBalancingUpstreamTransport(
+                servers.stream().map(server -> server.url).collect(Collectors.toList()),
+                LoadBalancingUpstreamTransportTest::restTransport, properties, registry);
+    }
+
+    private static UpstreamTransport restTransport(String url) {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(url));
+        return new RestTemplateUpstreamTransport(rest);
+    }
+
+    private static UpstreamRequest get() {
+        return UpstreamRequest.builder()
+                .prefix("/items")
+                .method(HttpMethod.GET)
+                .path("/{id}")
+                .parameters(Map.of("id", 1L))
+                .headers(new HttpHeaders())
+                .build();
+    }
+
+    private static class StandIn {
+        final HttpServer http;
+        final String url;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile int status = 200;
+        volatile int healthStatus = 200;
+
+        static {
+            // Headers and body go out as separate writes, which Nagle would delay by a delayed-ACK round
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        StandIn() throws IOException {
+            http = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            http.createContext("/items", exchange -> {
+                calls.incrementAndGet();
+                respond(exchange, status, "{\"id\":1}");
+            });
+            http.createContext("/actuator/health", exchange -> respond(exchange, healthStatus, "{\"status\":\"UP\"}"));
+            http.start();
+            url = "http://127.0.0.1:" + http.getAddress().getPort();
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body)
+                throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
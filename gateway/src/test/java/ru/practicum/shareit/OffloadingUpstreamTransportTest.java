@@ -0,0 +1,80 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.OffloadingUpstreamTransport;
+import ru.practicum.shareit.client.UpstreamRequest;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffloadingUpstreamTransportTest {
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void blockingCallDoesNotHoldCallerTest() {
+        OffloadingUpstreamTransport transport = new OffloadingUpstreamTransport(request -> {
+            await();
+            return CompletableFuture.completedFuture(ResponseEntity.ok(Thread.currentThread().getName().getBytes()));
+        }, executor, registry);
+
+        CompletableFuture<ResponseEntity<byte[]>> response = transport.exchange(get());
+
+        assertFalse(response.isDone());
+        release.countDown();
+        assertNotEquals(Thread.currentThread().getName(), new String(response.join().getBody()));
+        assertEquals(1, registry.get(OffloadingUpstreamTransport.QUEUE_WAIT_METRIC).timer().count());
+    }
+
+    @Test
+    void callsOverQueueCapacityAreRejectedTest() {
+        OffloadingUpstreamTransport transport = new OffloadingUpstreamTransport(request -> {
+            await();
+            return CompletableFuture.completedFuture(ResponseEntity.ok(new byte[0]));
+        }, executor, registry);
+
+        transport.exchange(get());
+        transport.exchange(get());
+        CompletableFuture<ResponseEntity<byte[]>> rejected = transport.exchange(get());
+
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    private void await() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static UpstreamRequest get() {
+        return UpstreamRequest.builder()
+                .prefix("/items")
+                .method(HttpMethod.GET)
+                .path("/1")
+                .headers(new HttpHeaders())
+                .build();
+    }
+}
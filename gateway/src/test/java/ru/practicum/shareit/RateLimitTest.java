@@ -0,0 +1,54 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+
+import java.util.List;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static ru.practicum.shareit.AsyncMockMvc.perform;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class, properties = {
+        "shareit-gateway.rate-limit.read.capacity=2",
+        "shareit-gateway.rate-limit.read.refill-per-second=1"
+})
+class RateLimitTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private BookingClient bookingClient;
+
+    @Test
+    void requestsOverLimitAreRejectedTest() throws Exception {
+        when(bookingClient.getOwnBookings(anyLong(), anyString(), anyInt(), anyInt()))
+                .thenReturn(completedFuture(ResponseEntity.ok(List.of())));
+
+        for (int i = 0; i < 2; i++) {
+            perform(mockMvc, get("/bookings").header("X-Sharer-User-Id", 1))
+                    .andExpect(status().isOk());
+        }
+        perform(mockMvc, get("/bookings").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        perform(mockMvc, get("/bookings").header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(3)).getOwnBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+}
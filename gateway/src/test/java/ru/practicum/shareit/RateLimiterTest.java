@@ -0,0 +1,92 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.ratelimit.RateLimitProperties;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.ratelimit.TokenBucket;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void init() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRead(new RateLimitProperties.Bucket(3, 1));
+        properties.setWrite(new RateLimitProperties.Bucket(1, 1));
+        rateLimiter = new RateLimiter(properties, clock::get);
+    }
+
+    @Test
+    void burstUpToCapacityTest() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(1L, false));
+        }
+        long wait = rateLimiter.tryAcquire(1L, false);
+
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void bucketRefillsOverTimeTest() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(1L, false);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, rateLimiter.tryAcquire(1L, false));
+        assertTrue(rateLimiter.tryAcquire(1L, false) > 0);
+    }
+
+    @Test
+    void readAndWriteBucketsAreSeparateTest() {
+        assertEquals(0, rateLimiter.tryAcquire(1L, true));
+        assertTrue(rateLimiter.tryAcquire(1L, true) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire(1L, false));
+    }
+
+    @Test
+    void usersAreLimitedSeparatelyTest() {
+        rateLimiter.tryAcquire(1L, true);
+
+        assertEquals(0, rateLimiter.tryAcquire(2L, true));
+    }
+
+    @Test
+    void rejectedRequestsAreCountedTest() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        rateLimiter.bindTo(registry);
+        rateLimiter.tryAcquire(1L, true);
+        rateLimiter.tryAcquire(1L, true);
+
+        assertEquals(1.0, registry.get(RateLimiter.REJECTED_METRIC).tag("bucket", "write").functionCounter().count());
+        assertEquals(0.0, registry.get(RateLimiter.REJECTED_METRIC).tag("bucket", "read").functionCounter().count());
+    }
+
+    @Test
+    void invalidLimitsAreRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0, clock.get()));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 10, clock.get()));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, TokenBucket.MAX_RATE + 1, clock.get()));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRead(new RateLimitProperties.Bucket(10, 0));
+        properties.setWrite(new RateLimitProperties.Bucket(10, 2_000_000_000L));
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            assertEquals(2, factory.getValidator().validate(properties).size());
+        }
+    }
+}
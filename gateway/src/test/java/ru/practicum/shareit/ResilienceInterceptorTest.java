@@ -0,0 +1,124 @@
+package ru.practicum.shareit;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.resilience.ResilienceConfiguration;
+import ru.practicum.shareit.resilience.ResilienceInterceptor;
+import ru.practicum.shareit.resilience.ResilienceProperties;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceInterceptorTest {
+    private final ResilienceConfiguration configuration = new ResilienceConfiguration();
+    private final AtomicInteger calls = new AtomicInteger();
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private SimpleMeterRegistry registry;
+    private ResilienceInterceptor interceptor;
+
+    @BeforeEach
+    void init() {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumNumberOfCalls(4);
+        properties.setMaxConcurrentCalls(1);
+        properties.setWaitDurationInOpenState(Duration.ofMinutes(1));
+        circuitBreakers = configuration.circuitBreakerRegistry(properties);
+        bulkheads = configuration.bulkheadRegistry(properties);
+        registry = new SimpleMeterRegistry();
+        configuration.resilienceMetrics(circuitBreakers, bulkheads).bindTo(registry);
+        interceptor = configuration.resilienceInterceptor(circuitBreakers, bulkheads);
+    }
+
+    @Test
+    void serverErrorsOpenCircuitTest() {
+        for (int i = 0; i < 4; i++) {
+            exchange("/items", CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_GATEWAY).build()));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker("items").getState());
+        CompletableFuture<ResponseEntity<byte[]>> rejected = exchange("/items",
+                CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(e.getCause() instanceof CallNotPermittedException);
+        assertEquals(4, calls.get());
+        assertEquals(1.0, registry.get(ResilienceConfiguration.TRANSITIONS_METRIC)
+                .tags("client", "items", "to", "OPEN").counter().count());
+    }
+
+    @Test
+    void connectionErrorsOpenCircuitTest() {
+        for (int i = 0; i < 4; i++) {
+            exchange("/items", CompletableFuture.failedFuture(new ResourceAccessException("I/O error")));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker("items").getState());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuitTest() {
+        for (int i = 0; i < 4; i++) {
+            exchange("/items", CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build()));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.circuitBreaker("items").getState());
+    }
+
+    @Test
+    void circuitsAreSeparatePerClientTest() {
+        circuitBreakers.circuitBreaker("items").transitionToOpenState();
+
+        CompletableFuture<ResponseEntity<byte[]>> response = exchange("/users",
+                CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+
+        assertEquals(HttpStatus.OK, response.join().getStatusCode());
+    }
+
+    @Test
+    void bulkheadRejectsExcessCallsTest() {
+        CompletableFuture<ResponseEntity<byte[]>> pending = new CompletableFuture<>();
+        exchange("/bookings", pending);
+
+        CompletableFuture<ResponseEntity<byte[]>> rejected = exchange("/bookings", pending);
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(e.getCause() instanceof BulkheadFullException);
+        assertEquals(1.0, registry.get(ResilienceConfiguration.REJECTED_METRIC)
+                .tag("client", "bookings").counter().count());
+
+        pending.complete(ResponseEntity.ok().build());
+        assertEquals(HttpStatus.OK, exchange("/bookings",
+                CompletableFuture.completedFuture(ResponseEntity.ok().build())).join().getStatusCode());
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> exchange(String prefix,
+                                                               CompletableFuture<ResponseEntity<byte[]>> result) {
+        UpstreamRequest request = UpstreamRequest.builder()
+                .prefix(prefix)
+                .method(HttpMethod.GET)
+                .path("")
+                .headers(new HttpHeaders())
+                .build();
+        return interceptor.intercept(request, r -> {
+            calls.incrementAndGet();
+            return result;
+        });
+    }
+}
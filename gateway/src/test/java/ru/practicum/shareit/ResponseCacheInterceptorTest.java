@@ -0,0 +1,158 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.cache.CacheKey;
+import ru.practicum.shareit.cache.ResponseCacheInterceptor;
+import ru.practicum.shareit.client.UpstreamRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheInterceptorTest {
+    private static final byte[] ITEM = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "\"1\"";
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private Cache<CacheKey, ResponseEntity<byte[]>> cache;
+    private ResponseCacheInterceptor interceptor;
+
+    @BeforeEach
+    void init() {
+        cache = Caffeine.newBuilder().maximumSize(100).build();
+        interceptor = new ResponseCacheInterceptor(cache, List.of("/items/{id:[0-9]+}", "/users/{id:[0-9]+}"));
+    }
+
+    @Test
+    void repeatedGetIsServedFromCacheTest() {
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+        ResponseEntity<byte[]> response = exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ITEM, response.getBody());
+    }
+
+    @Test
+    void cacheIsKeyedByUserTest() {
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 2L), HttpStatus.OK);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void notFoundIsNotCachedTest() {
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.NOT_FOUND);
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.NOT_FOUND);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void listsAreNotCachedTest() {
+        exchange(request(HttpMethod.GET, "/items", "", 1L), HttpStatus.OK);
+        exchange(request(HttpMethod.GET, "/items", "", 1L), HttpStatus.OK);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void patchInvalidatesResourceTest() {
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+        exchange(request(HttpMethod.PATCH, "/items", "/{id}", 1L), HttpStatus.OK);
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void bookingInvalidatesItemsTest() {
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+        exchange(request(HttpMethod.POST, "/bookings", "", 2L), HttpStatus.OK);
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void unrelatedWriteKeepsCacheTest() {
+        exchange(request(HttpMethod.GET, "/users", "/{id}", 1L), HttpStatus.OK);
+        exchange(request(HttpMethod.POST, "/bookings", "", 2L), HttpStatus.OK);
+        exchange(request(HttpMethod.GET, "/users", "/{id}", 1L), HttpStatus.OK);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void responseRacingWriteIsNotCachedTest() {
+        CompletableFuture<ResponseEntity<byte[]>> pending = new CompletableFuture<>();
+        interceptor.intercept(request(HttpMethod.GET, "/items", "/{id}", 1L), request -> pending);
+        exchange(request(HttpMethod.PATCH, "/items", "/{id}", 1L), HttpStatus.OK);
+        pending.complete(ResponseEntity.ok(ITEM));
+
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredFromCacheTest() {
+        exchange(request(HttpMethod.GET, "/items", "/{id}", 1L), HttpStatus.OK);
+        UpstreamRequest conditional = request(HttpMethod.GET, "/items", "/{id}", 1L);
+        conditional.getHeaders().setIfNoneMatch("W/\"1\"");
+
+        ResponseEntity<byte[]> response = exchange(conditional, HttpStatus.OK);
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void conditionsAreNotForwardedForCacheableRequestTest() {
+        UpstreamRequest conditional = request(HttpMethod.GET, "/items", "/{id}", 1L);
+        conditional.getHeaders().setIfNoneMatch("\"0\"");
+        List<UpstreamRequest> forwarded = new ArrayList<>();
+
+        ResponseEntity<byte[]> response = interceptor.intercept(conditional, r -> {
+            forwarded.add(r);
+            return CompletableFuture.completedFuture(ResponseEntity.ok().eTag(ETAG).body(ITEM));
+        }).join();
+
+        assertFalse(forwarded.get(0).getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, cache.estimatedSize());
+    }
+
+    private ResponseEntity<byte[]> exchange(UpstreamRequest request, HttpStatus status) {
+        return interceptor.intercept(request, r -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(status).eTag(ETAG).body(ITEM));
+        }).join();
+    }
+
+    private static UpstreamRequest request(HttpMethod method, String prefix, String path, long userId) {
+        return UpstreamRequest.builder()
+                .prefix(prefix)
+                .method(method)
+                .path(path)
+                .parameters(Map.of("id", 1L))
+                .headers(new HttpHeaders())
+                .userId(userId)
+                .build();
+    }
+}
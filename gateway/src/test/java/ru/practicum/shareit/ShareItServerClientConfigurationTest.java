@@ -0,0 +1,74 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.client.ShareItServerClientConfiguration;
+import ru.practicum.shareit.client.ShareItServerHttpProperties;
+import ru.practicum.shareit.client.UpstreamTransport;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShareItServerClientConfigurationTest {
+    private final ShareItServerClientConfiguration.RestTemplateTransportConfiguration configuration =
+            new ShareItServerClientConfiguration.RestTemplateTransportConfiguration();
+
+    @Test
+    void connectionManagerLimitsTest() {
+        ShareItServerHttpProperties properties = new ShareItServerHttpProperties();
+        properties.setMaxTotal(50);
+        properties.setMaxPerRoute(20);
+
+        PoolingHttpClientConnectionManager connectionManager = configuration.shareItServerConnectionManager(properties);
+
+        assertEquals(50, connectionManager.getMaxTotal());
+        assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(properties.getValidateAfterInactivity().toMillis(), connectionManager.getValidateAfterInactivity());
+        connectionManager.close();
+    }
+
+    @Test
+    void restTemplatesShareRequestFactoryTest() {
+        ShareItServerHttpProperties properties = new ShareItServerHttpProperties();
+        PoolingHttpClientConnectionManager connectionManager = configuration.shareItServerConnectionManager(properties);
+        HttpComponentsClientHttpRequestFactory requestFactory = configuration.shareItServerRequestFactory(
+                configuration.shareItServerHttpClient(connectionManager, properties));
+        RestTemplateBuilder builder = new RestTemplateBuilder(
+                configuration.shareItServerRestTemplateCustomizer(requestFactory));
+
+        RestTemplate first = builder.rootUri("http://localhost:9090/items").build();
+        RestTemplate second = builder.rootUri("http://localhost:9090/users").build();
+
+        assertSame(requestFactory, first.getRequestFactory());
+        assertSame(requestFactory, second.getRequestFactory());
+        connectionManager.close();
+    }
+
+    @Test
+    void ioPoolDoesNotReplaceApplicationTaskExecutorTest() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+                .withUserConfiguration(ShareItServerClientConfiguration.class)
+                .withPropertyValues("shareit-server.url=http://localhost:9090")
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withBean(RestTemplateBuilder.class, RestTemplateBuilder::new)
+                .withBean(Jackson2ObjectMapperBuilder.class, Jackson2ObjectMapperBuilder::json)
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(UpstreamTransport.class).containsKey("baseUpstreamTransport"));
+                    assertEquals(1, context.getBeanNamesForType(Executor.class).length);
+                    assertTrue(context.containsBean("applicationTaskExecutor"));
+                });
+    }
+}
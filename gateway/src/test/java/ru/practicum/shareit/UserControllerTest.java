@@ -18,6 +18,8 @@ import ru.practicum.shareit.user.UserDto;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static ru.practicum.shareit.AsyncMockMvc.perform;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,9 +43,9 @@ class UserControllerTest {
 
     @Test
     void userCreateTest() throws Exception {
-        when(userClient.addUser(any(UserDto.class))).thenReturn(ResponseEntity.ok(gson.toJson(userDto1)));
+        when(userClient.addUser(any(UserDto.class))).thenReturn(completedFuture(ResponseEntity.ok(gson.toJson(userDto1))));
 
-        mockMvc.perform(post("/users")
+        perform(mockMvc, post("/users")
                         .content(mapper.writeValueAsString(userDto1))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -60,7 +62,7 @@ class UserControllerTest {
     void createInvalidNameUserTest() throws Exception {
         UserDto emptyNameUser = new UserDto(-1L, "", "user@mail.com");
 
-        mockMvc.perform(post("/users")
+        perform(mockMvc, post("/users")
                         .content(mapper.writeValueAsString(emptyNameUser))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -74,7 +76,7 @@ class UserControllerTest {
     void createInvalidEmailUserTest() throws Exception {
         UserDto invalidEmailUser = new UserDto(-1L, "user", "user(at)mail.com");
 
-        mockMvc.perform(post("/users")
+        perform(mockMvc, post("/users")
                         .content(mapper.writeValueAsString(invalidEmailUser))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -86,9 +88,9 @@ class UserControllerTest {
 
     @Test
     void getAllUsersTest() throws Exception {
-        when(userClient.getAllUsers()).thenReturn(ResponseEntity.ok(gson.toJson(List.of(userDto1, userDto2))));
+        when(userClient.getAllUsers()).thenReturn(completedFuture(ResponseEntity.ok(gson.toJson(List.of(userDto1, userDto2)))));
 
-        mockMvc.perform(get("/users")
+        perform(mockMvc, get("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
@@ -100,9 +102,9 @@ class UserControllerTest {
 
     @Test
     void getUserTest() throws Exception {
-        when(userClient.getUser(anyLong())).thenReturn(ResponseEntity.ok(gson.toJson(userDto1)));
+        when(userClient.getUser(anyLong())).thenReturn(completedFuture(ResponseEntity.ok(gson.toJson(userDto1))));
 
-        mockMvc.perform(get("/users/1")
+        perform(mockMvc, get("/users/1")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
@@ -117,10 +119,10 @@ class UserControllerTest {
     @Test
     void getUserFailureTest() throws Exception {
         when(userClient.getUser(anyLong())).thenReturn(
-                new ResponseEntity<Object>("User not found", HttpStatus.NOT_FOUND)
+                completedFuture(new ResponseEntity<Object>("User not found", HttpStatus.NOT_FOUND))
         );
 
-        mockMvc.perform(get("/users/1")
+        perform(mockMvc, get("/users/1")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
@@ -131,7 +133,7 @@ class UserControllerTest {
 
     @Test
     void deleteUserTest() throws Exception {
-        mockMvc.perform(delete("/users/1"))
+        perform(mockMvc, delete("/users/1"))
                 .andExpect(status().isOk());
 
         verify(userClient, Mockito.times(1)).removeUser(1L);
@@ -142,9 +144,9 @@ class UserControllerTest {
         UserDto update = new UserDto(userDto1.getId(), "updatedName", null);
         UserDto updatedDto = new UserDto(userDto1.getId(), update.getName(), userDto1.getEmail());
 
-        when(userClient.updateUser(anyLong(), any(UserDto.class))).thenReturn(ResponseEntity.ok(gson.toJson(updatedDto)));
+        when(userClient.updateUser(anyLong(), any(UserDto.class))).thenReturn(completedFuture(ResponseEntity.ok(gson.toJson(updatedDto))));
 
-        mockMvc.perform(patch("/users/1")
+        perform(mockMvc, patch("/users/1")
                         .content(mapper.writeValueAsString(update))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -161,7 +163,7 @@ class UserControllerTest {
     void updateUserInvalidEmailTest() throws Exception {
         UserDto update = new UserDto(userDto1.getId(), null, "mail(at)com");
 
-        mockMvc.perform(patch("/users/1")
+        perform(mockMvc, patch("/users/1")
                         .content(mapper.writeValueAsString(update))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
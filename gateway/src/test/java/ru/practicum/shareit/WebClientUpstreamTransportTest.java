@@ -0,0 +1,125 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.balancing.LoadBalancerProperties;
+import ru.practicum.shareit.client.ShareItServerClientConfiguration;
+import ru.practicum.shareit.client.ShareItServerHttpProperties;
+import ru.practicum.shareit.client.UpstreamRequest;
+import ru.practicum.shareit.client.UpstreamTransport;
+import ru.practicum.shareit.client.WebClientUpstreamTransport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientUpstreamTransportTest {
+    private static final String ITEMS = "[{\"id\":1,\"name\":\"Дрель\",\"available\":true}]";
+    private static final String ERROR = "{\"Предмет не найден\":\"Не найден предмет с id:2\"}";
+    private static final String LARGE = "[\"" + "x".repeat(300 * 1024) + "\"]";
+
+    private HttpServer server;
+    private WebClientUpstreamTransport transport;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/search", exchange -> {
+            String response = exchange.getRequestURI().getQuery().contains("text=дрель")
+                    && "1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id")) ? ITEMS : "[]";
+            respond(exchange, 200, response);
+        });
+        server.createContext("/items/2", exchange -> respond(exchange, 404, ERROR));
+        server.createContext("/items/large", exchange -> respond(exchange, 200, LARGE));
+        server.start();
+        transport = new WebClientUpstreamTransport(
+                WebClient.builder().baseUrl("http://localhost:" + server.getAddress().getPort()).build());
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void exchangeTest() {
+        ResponseEntity<byte[]> response = transport.exchange(request("/search?text={text}", Map.of("text", "дрель"))).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(ITEMS.getBytes(StandardCharsets.UTF_8), response.getBody());
+    }
+
+    @Test
+    void errorStatusIsReturnedAsResponseTest() {
+        ResponseEntity<byte[]> response = transport.exchange(request("/2", Map.of())).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(ERROR.getBytes(StandardCharsets.UTF_8), response.getBody());
+    }
+
+    @Test
+    void configuredTransportBuffersLargeBodyTest() {
+        ShareItServerHttpProperties properties = new ShareItServerHttpProperties();
+        ConnectionProvider connectionProvider = ConnectionProvider.create("test");
+        UpstreamTransport configured = new ShareItServerClientConfiguration.WebClientTransportConfiguration()
+                .baseUpstreamTransport(List.of("http://localhost:" + server.getAddress().getPort()), WebClient.builder(),
+                        connectionProvider, properties, new LoadBalancerProperties(), new SimpleMeterRegistry());
+
+        ResponseEntity<byte[]> response = configured.exchange(request("/large", Map.of())).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(LARGE.getBytes(StandardCharsets.UTF_8), response.getBody());
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void connectionErrorIsRestClientExceptionTest() {
+        server.stop(0);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> transport.exchange(request("/2", Map.of())).join());
+
+        assertTrue(e.getCause() instanceof ResourceAccessException);
+    }
+
+    private static UpstreamRequest request(String path, Map<String, Object> parameters) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return UpstreamRequest.builder()
+                .prefix("/items")
+                .method(HttpMethod.GET)
+                .path(path)
+                .parameters(parameters)
+                .headers(headers)
+                .userId(1L)
+                .build();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
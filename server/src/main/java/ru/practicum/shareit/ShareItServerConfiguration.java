@@ -13,6 +13,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.tracing.TimedModelMapper;
 
 @Configuration
 @ComponentScan
@@ -20,7 +21,7 @@ public class ShareItServerConfiguration {
 
     @Bean
     public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
+        ModelMapper modelMapper = new TimedModelMapper();
 
         modelMapper.getConfiguration()
                 .setPropertyCondition(Conditions.isNotNull())
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.exception.BookingBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination over bookings ordered by (start DESC, id DESC).
+ * The token points at the last booking of the previous page and is bound to the state it was issued for.
+ */
+@Value
+public class BookingCursor {
+    public static final String HEADER = "X-Next-Cursor";
+
+    BookingState state;
+    LocalDateTime start;
+    long id;
+
+    public String encode() {
+        String raw = state + ":" + start.toEpochSecond(ZoneOffset.UTC) + ":" + start.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String token, BookingState expectedState) {
+        BookingCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(token);
+            }
+            LocalDateTime start = LocalDateTime.ofEpochSecond(Long.parseLong(parts[1]), Integer.parseInt(parts[2]),
+                    ZoneOffset.UTC);
+            cursor = new BookingCursor(BookingState.valueOf(parts[0]), start, Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new BookingBadRequestException("Некорректный курсор пагинации: " + token);
+        }
+        if (cursor.state != expectedState) {
+            throw new BookingBadRequestException(String.format("Курсор выдан для state: %s, запрошен state: %s",
+                    cursor.state, expectedState));
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingPeriod {
+    long getId();
+
+    long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -5,54 +5,137 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String KEYSET = "AND b.start <= :start AND (b.start < :start OR b.id < :id) ORDER BY b.start DESC, b.id DESC";
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.end < now() ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.end < now() ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllPastByBooker(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND now() BETWEEN b.start AND b.end ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND now() BETWEEN b.start AND b.end ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllCurrentByBooker(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.start > now() ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.start > now() ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllFutureByBooker(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.start > now() AND b.status = 'WAITING' ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.start > now() AND b.status = 'WAITING' ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllWaitingByBooker(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.status IN ('CANCELED', 'REJECTED') ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.status IN ('CANCELED', 'REJECTED') ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllRejectedByBooker(@Param("uid") long uid, Pageable page);
 
     @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid ORDER BY b.start DESC")
     List<Booking> findAllByBooker(@Param("uid") long uid);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllByBooker(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.end < now() ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.end < now() ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllPastByOwner(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND now() BETWEEN b.start AND b.end ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND now() BETWEEN b.start AND b.end ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllCurrentByOwner(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.start > now() ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.start > now() ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllFutureByOwner(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.start > now() AND b.status = 'WAITING' ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.start > now() AND b.status = 'WAITING' ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllWaitingByOwner(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.status IN ('CANCELED', 'REJECTED') ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.status IN ('CANCELED', 'REJECTED') ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllRejectedByOwner(@Param("uid") long uid, Pageable page);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid ORDER BY b.start DESC")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid ORDER BY b.start DESC, b.id DESC")
     List<Booking> findAllByOwner(@Param("uid") long uid, Pageable page);
 
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.item.owner.id = :uid AND b.end < now() ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findAllPastByOwnerAndItem(@Param("uid") long uid, @Param("itemId") long itemId, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.item.owner.id = :uid AND now() BETWEEN b.start AND b.end ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findAllCurrentByOwnerAndItem(@Param("uid") long uid, @Param("itemId") long itemId, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.item.owner.id = :uid AND b.start > now() ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findAllFutureByOwnerAndItem(@Param("uid") long uid, @Param("itemId") long itemId, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.item.owner.id = :uid AND b.start > now() AND b.status = 'WAITING' ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findAllWaitingByOwnerAndItem(@Param("uid") long uid, @Param("itemId") long itemId, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.item.owner.id = :uid AND b.status IN ('CANCELED', 'REJECTED') ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findAllRejectedByOwnerAndItem(@Param("uid") long uid, @Param("itemId") long itemId, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.item.owner.id = :uid ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findAllByOwnerAndItem(@Param("uid") long uid, @Param("itemId") long itemId, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.end < now() " + KEYSET)
+    List<Booking> findAllPastByBookerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                            @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND now() BETWEEN b.start AND b.end " + KEYSET)
+    List<Booking> findAllCurrentByBookerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                               @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.start > now() " + KEYSET)
+    List<Booking> findAllFutureByBookerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                              @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.start > now() AND b.status = 'WAITING' " + KEYSET)
+    List<Booking> findAllWaitingByBookerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                               @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid AND b.status IN ('CANCELED', 'REJECTED') " + KEYSET)
+    List<Booking> findAllRejectedByBookerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                                @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :uid " + KEYSET)
+    List<Booking> findAllByBookerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                        @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.end < now() " + KEYSET)
+    List<Booking> findAllPastByOwnerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                           @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND now() BETWEEN b.start AND b.end " + KEYSET)
+    List<Booking> findAllCurrentByOwnerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                              @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.start > now() " + KEYSET)
+    List<Booking> findAllFutureByOwnerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                             @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.start > now() AND b.status = 'WAITING' " + KEYSET)
+    List<Booking> findAllWaitingByOwnerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                              @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid AND b.status IN ('CANCELED', 'REJECTED') " + KEYSET)
+    List<Booking> findAllRejectedByOwnerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                               @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :uid " + KEYSET)
+    List<Booking> findAllByOwnerBefore(@Param("uid") long uid, @Param("start") LocalDateTime start,
+                                       @Param("id") long id, Pageable page);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = ?1 ORDER BY b.start DESC")
     List<Booking> findAllByItemOwnerIdOrderByStartDesc(long userId);
 
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN ?1")
     List<Booking> findAllByItemIdIn(Collection<Long> itemIds);
 
     @Query("SELECT b FROM Booking b WHERE item.id=?1 AND b.status in ('APPROVED', 'WAITING') ORDER BY b.start ASC")
     List<Booking> findAllByItemId(long itemId);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND b.status IN ('APPROVED', 'WAITING')")
+    List<BookingPeriod> findAllActivePeriodsByItemIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT COUNT(b.id) AS count, MAX(b.id) AS lastId FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status IN ('APPROVED', 'WAITING')")
+    BookingStamp findActiveStampByItemId(long itemId);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.item.id = :itemId AND b.status IN ('APPROVED', 'WAITING') " +
+            "AND b.start < :end AND b.end > :start")
+    List<Long> findOverlappingIds(@Param("itemId") long itemId, @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end, Pageable page);
 }
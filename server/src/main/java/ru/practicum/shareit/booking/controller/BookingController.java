@@ -2,10 +2,15 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.exception.BookingBadRequestException;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 
 import java.util.List;
 
@@ -15,12 +20,16 @@ import java.util.List;
 public class BookingController {
     @Autowired
     private BookingService bookingService;
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     @PostMapping
     BookingDto addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                          @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                           @RequestBody BookingSimpleDto bookingSimpleDto) {
         log.info("POST запрос для user_id: {}, BookingAddDto: {}", userId, bookingSimpleDto);
-        return bookingService.add(userId, bookingSimpleDto);
+        return idempotencyService.execute(idempotencyKey, userId, "POST /bookings", bookingSimpleDto, BookingDto.class,
+                () -> bookingService.add(userId, bookingSimpleDto));
     }
 
     @PatchMapping("/{bookingId}")
@@ -39,20 +48,47 @@ public class BookingController {
     }
 
     @GetMapping
-    List<BookingDto> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                 @RequestParam(name = "state") String state,
-                                 @RequestParam(name = "from") int from,
-                                 @RequestParam(name = "size") int size) {
+    ResponseEntity<List<BookingDto>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestParam(name = "state") String state,
+                                                 @RequestParam(name = "from") int from,
+                                                 @RequestParam(name = "size") int size,
+                                                 @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("GET запрос собственных бронирований пользователя с id: {}, state: {}", userId, state);
-        return bookingService.getOwnBookings(userId, state, from, size);
+        List<BookingDto> bookings = cursor != null
+                ? bookingService.getOwnBookings(userId, state, cursor, size)
+                : bookingService.getOwnBookings(userId, state, from, size);
+        return withNextCursor(bookings, state, size);
     }
 
     @GetMapping("/owner")
-    List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                      @RequestParam(name = "state") String state,
-                                      @RequestParam(name = "from") int from,
-                                      @RequestParam(name = "size") int size) {
-        log.info("GET запрос бронирований предметов пользователя с id: {}, state: {}", userId, state);
-        return bookingService.getBookingsForOwnItems(userId, state, from, size);
+    ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @RequestParam(name = "state") String state,
+                                                      @RequestParam(name = "from") int from,
+                                                      @RequestParam(name = "size") int size,
+                                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                                      @RequestParam(name = "itemId", required = false) Long itemId) {
+        log.info("GET запрос бронирований предметов пользователя с id: {}, state: {}, item_id: {}", userId, state, itemId);
+        if (itemId != null) {
+            if (cursor != null) {
+                throw new BookingBadRequestException("Курсор пагинации не поддерживается вместе с itemId");
+            }
+            return ResponseEntity.ok(bookingService.getBookingsForOwnItem(userId, itemId, state, from, size));
+        }
+        List<BookingDto> bookings = cursor != null
+                ? bookingService.getBookingsForOwnItems(userId, state, cursor, size)
+                : bookingService.getBookingsForOwnItems(userId, state, from, size);
+        return withNextCursor(bookings, state, size);
+    }
+
+    // A short page is the last one, so the client gets no token to continue with
+    private static ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, String state, int size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        String next = new BookingCursor(BookingState.valueOf(state), last.getStart(), last.getId()).encode();
+        return ResponseEntity.ok()
+                .header(BookingCursor.HEADER, next)
+                .body(bookings);
     }
 }
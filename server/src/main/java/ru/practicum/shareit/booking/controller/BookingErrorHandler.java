@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.booking.exception.BookingBadRequestException;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 
 import java.util.Map;
@@ -27,4 +28,11 @@ public class BookingErrorHandler {
         log.info("error: {}", e.getMessage());
         return Map.of("error", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> bookingConflict(BookingConflictException e) {
+        log.info("error: {}", e.getMessage());
+        return Map.of("error", e.getMessage());
+    }
 }
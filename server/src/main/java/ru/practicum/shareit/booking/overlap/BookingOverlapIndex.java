@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Overlap check of WAITING and APPROVED bookings of an item, answered by the bookings_item_start_idx index.
+ * The database is the only source, so bookings written by other instances or outside the service are seen.
+ */
+@Component
+public class BookingOverlapIndex {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    public BookingOverlapIndex(BookingRepository bookingRepository, ItemRepository itemRepository) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * Returns the id of an active booking of the item that overlaps [start, end). Locks the item row until
+     * the end of the current transaction, so the new booking has to be saved in the same transaction.
+     */
+    public Optional<Long> findConflict(long itemId, LocalDateTime start, LocalDateTime end) {
+        itemRepository.lockById(itemId);
+        return bookingRepository.findOverlappingIds(itemId, start, end, PageRequest.of(0, 1)).stream().findFirst();
+    }
+}
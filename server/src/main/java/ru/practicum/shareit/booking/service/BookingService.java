@@ -16,4 +16,10 @@ public interface BookingService {
     List<BookingDto> getOwnBookings(long userId, String state, int from, int size);
 
     List<BookingDto> getBookingsForOwnItems(long userId, String state, int from, int size);
+
+    List<BookingDto> getBookingsForOwnItem(long userId, long itemId, String state, int from, int size);
+
+    List<BookingDto> getOwnBookings(long userId, String state, String cursor, int size);
+
+    List<BookingDto> getBookingsForOwnItems(long userId, String state, String cursor, int size);
 }
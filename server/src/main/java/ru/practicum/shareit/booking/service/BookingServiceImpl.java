@@ -7,18 +7,24 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSimpleDto;
 import ru.practicum.shareit.booking.exception.BookingBadRequestException;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,8 +42,13 @@ public class BookingServiceImpl implements BookingService {
     private ModelMapper modelMapper;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private BookingOverlapIndex bookingOverlapIndex;
+    @Autowired
+    private ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
+    @Transactional
     public BookingDto add(long userId, BookingSimpleDto bookingSimpleDto) {
         User booker = getUser(userRepository, userId);
         Item item = getItem(itemRepository, bookingSimpleDto.getItemId());
@@ -51,14 +62,25 @@ public class BookingServiceImpl implements BookingService {
             );
         }
         Booking booking = modelMapper.map(bookingSimpleDto, Booking.class);
+        if (booking.getStart() != null && booking.getEnd() != null) {
+            bookingOverlapIndex.findConflict(item.getId(), booking.getStart(), booking.getEnd())
+                    .ifPresent(conflictId -> {
+                        throw new BookingConflictException(String.format(
+                                "Предмет с id:%d уже забронирован на это время, резервирование с id:%d",
+                                item.getId(), conflictId));
+                    });
+        }
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
-        log.info("Создано резервирование: {}", booking);
-        return modelMapper.map(bookingRepository.save(booking), BookingDto.class);
+        Booking saved = bookingRepository.save(booking);
+        itemAvailabilityIndex.saved(saved);
+        log.info("Создано резервирование: {}", saved);
+        return modelMapper.map(saved, BookingDto.class);
     }
 
     @Override
+    @Transactional
     public BookingDto approve(long bookingId, long userId, boolean approve) {
         User user = getUser(userRepository, userId);
         Booking booking = getBooking(bookingRepository, bookingId);
@@ -74,8 +96,10 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approve ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        log.info("Изменен статус резервировния: {}", booking);
-        return modelMapper.map(bookingRepository.save(booking), BookingDto.class);
+        Booking saved = bookingRepository.save(booking);
+        itemAvailabilityIndex.saved(saved);
+        log.info("Изменен статус резервировния: {}", saved);
+        return modelMapper.map(saved, BookingDto.class);
     }
 
     @Override
@@ -121,6 +145,7 @@ public class BookingServiceImpl implements BookingService {
                 bookings.addAll(bookingRepository.findAllByBooker(userId, page));
                 break;
         }
+        RequestDeadline.check();
 
         return bookings.stream()
                 .map(booking -> modelMapper.map(booking, BookingDto.class))
@@ -155,6 +180,120 @@ public class BookingServiceImpl implements BookingService {
                 bookings.addAll(bookingRepository.findAllByOwner(userId, page));
                 break;
         }
+        RequestDeadline.check();
+
+        return bookings.stream()
+                .map(booking -> modelMapper.map(booking, BookingDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsForOwnItem(long userId, long itemId, String state, int from, int size) {
+        BookingState bookingState = BookingState.valueOf(state);
+        User user = getUser(userRepository, userId);
+        PageRequest page = PageRequest.of(from / size, size);
+        log.info("Запрошены резервирования со статусом '{}' предмета с id: {} пользователя с id: {}", state, itemId, userId);
+        List<Booking> bookings = new ArrayList<>();
+        switch (bookingState) {
+            case PAST:
+                bookings.addAll(bookingRepository.findAllPastByOwnerAndItem(userId, itemId, page));
+                break;
+            case CURRENT:
+                bookings.addAll(bookingRepository.findAllCurrentByOwnerAndItem(userId, itemId, page));
+                break;
+            case FUTURE:
+                bookings.addAll(bookingRepository.findAllFutureByOwnerAndItem(userId, itemId, page));
+                break;
+            case REJECTED:
+                bookings.addAll(bookingRepository.findAllRejectedByOwnerAndItem(userId, itemId, page));
+                break;
+            case WAITING:
+                bookings.addAll(bookingRepository.findAllWaitingByOwnerAndItem(userId, itemId, page));
+                break;
+            default:
+                bookings.addAll(bookingRepository.findAllByOwnerAndItem(userId, itemId, page));
+                break;
+        }
+        RequestDeadline.check();
+
+        return bookings.stream()
+                .map(booking -> modelMapper.map(booking, BookingDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getOwnBookings(long userId, String state, String cursor, int size) {
+        BookingState bookingState = BookingState.valueOf(state);
+        BookingCursor after = BookingCursor.decode(cursor, bookingState);
+        User user = getUser(userRepository, userId);
+        PageRequest page = PageRequest.of(0, size);
+        LocalDateTime start = after.getStart();
+        long id = after.getId();
+        log.info("Запрошены собственные резервирования со статусом '{}' пользователя с id: {} после резервирования с id: {}",
+                state, userId, id);
+        List<Booking> bookings = new ArrayList<>();
+        switch (bookingState) {
+            case PAST:
+                bookings.addAll(bookingRepository.findAllPastByBookerBefore(userId, start, id, page));
+                break;
+            case CURRENT:
+                bookings.addAll(bookingRepository.findAllCurrentByBookerBefore(userId, start, id, page));
+                break;
+            case FUTURE:
+                bookings.addAll(bookingRepository.findAllFutureByBookerBefore(userId, start, id, page));
+                break;
+            case REJECTED:
+                bookings.addAll(bookingRepository.findAllRejectedByBookerBefore(userId, start, id, page));
+                break;
+            case WAITING:
+                bookings.addAll(bookingRepository.findAllWaitingByBookerBefore(userId, start, id, page));
+                break;
+            default:
+                bookings.addAll(bookingRepository.findAllByBookerBefore(userId, start, id, page));
+                break;
+        }
+        RequestDeadline.check();
+
+        return bookings.stream()
+                .map(booking -> modelMapper.map(booking, BookingDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsForOwnItems(long userId, String state, String cursor, int size) {
+        BookingState bookingState = BookingState.valueOf(state);
+        BookingCursor after = BookingCursor.decode(cursor, bookingState);
+        User user = getUser(userRepository, userId);
+        PageRequest page = PageRequest.of(0, size);
+        LocalDateTime start = after.getStart();
+        long id = after.getId();
+        log.info("Запрошены резервирования со статусом '{}' для предметов пользователя с id: {} после резервирования с id: {}",
+                state, userId, id);
+        List<Booking> bookings = new ArrayList<>();
+        switch (bookingState) {
+            case PAST:
+                bookings.addAll(bookingRepository.findAllPastByOwnerBefore(userId, start, id, page));
+                break;
+            case CURRENT:
+                bookings.addAll(bookingRepository.findAllCurrentByOwnerBefore(userId, start, id, page));
+                break;
+            case FUTURE:
+                bookings.addAll(bookingRepository.findAllFutureByOwnerBefore(userId, start, id, page));
+                break;
+            case REJECTED:
+                bookings.addAll(bookingRepository.findAllRejectedByOwnerBefore(userId, start, id, page));
+                break;
+            case WAITING:
+                bookings.addAll(bookingRepository.findAllWaitingByOwnerBefore(userId, start, id, page));
+                break;
+            default:
+                bookings.addAll(bookingRepository.findAllByOwnerBefore(userId, start, id, page));
+                break;
+        }
+        RequestDeadline.check();
 
         return bookings.stream()
                 .map(booking -> modelMapper.map(booking, BookingDto.class))
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.compression;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(CompressionProperties.class)
+@ConditionalOnProperty(name = "shareit-server.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<GzipResponseFilter> gzipResponseFilter(CompressionProperties properties,
+                                                                         MeterRegistry registry) {
+        FilterRegistrationBean<GzipResponseFilter> registration = new FilterRegistrationBean<>(
+                new GzipResponseFilter(properties.getMinResponseSize().toBytes(), registry));
+        registration.addUrlPatterns("/*");
+        // Outside ServerTimingFilter, so that the Server-Timing header is set before the body is compressed
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
+}
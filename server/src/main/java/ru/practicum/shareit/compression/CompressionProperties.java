@@ -0,0 +1,14 @@
+package ru.practicum.shareit.compression;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.compression")
+public class CompressionProperties {
+    private boolean enabled = true;
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+}
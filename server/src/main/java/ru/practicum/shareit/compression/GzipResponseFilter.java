@@ -0,0 +1,101 @@
+package ru.practicum.shareit.compression;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips JSON and Smile responses above the size threshold for clients that send Accept-Encoding: gzip.
+ * Done here rather than by Tomcat so that compression time and ratio can be measured.
+ */
+public class GzipResponseFilter extends OncePerRequestFilter {
+    private static final String GZIP = "gzip";
+    private static final List<MediaType> COMPRESSIBLE_TYPES = List.of(MediaType.APPLICATION_JSON,
+            new MediaType("application", "x-jackson-smile"));
+
+    private final long minResponseSize;
+    private final Timer compressionTimer;
+    private final DistributionSummary compressionRatio;
+
+    public GzipResponseFilter(long minResponseSize, MeterRegistry registry) {
+        this.minResponseSize = minResponseSize;
+        this.compressionTimer = Timer.builder("shareit.server.compression")
+                .description("Time spent gzipping response bodies")
+                .register(registry);
+        this.compressionRatio = DistributionSummary.builder("shareit.server.compression.ratio")
+                .description("Uncompressed to compressed response size")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acceptsGzip(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        if (!isCompressible(wrapper.getContentType()) || wrapper.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = wrapper.getContentAsByteArray();
+        if (body.length < minResponseSize) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        long start = System.nanoTime();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        compressionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        compressionRatio.record((double) body.length / compressed.size());
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        if (etag != null && !etag.startsWith("W/")) {
+            // The compressed bytes differ from the identity ones, so a strong tag can't be shared
+            response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+        }
+        response.setContentLength(compressed.size());
+        compressed.writeTo(response.getOutputStream());
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        return Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING)).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(value -> value.split(";")[0].trim())
+                .anyMatch(GZIP::equalsIgnoreCase);
+    }
+
+    private static boolean isCompressible(String contentType) {
+        try {
+            return contentType != null && COMPRESSIBLE_TYPES.stream()
+                    .anyMatch(type -> type.isCompatibleWith(MediaType.parseMediaType(contentType)));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+@Slf4j
+public class DeadlineErrorHandler {
+
+    @ExceptionHandler({DeadlineExceededException.class, TransactionTimedOutException.class, QueryTimeoutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Map<String, String> deadlineExceeded(RuntimeException e) {
+        log.info("Обработка прервана по дедлайну: {}", e.getMessage());
+        return Map.of("error", "Истекло время на обработку запроса");
+    }
+
+    // The pool discards a connection whose statement timed out (H2 reports it as SQLTimeoutException),
+    // so the rollback fails and hides the timeout
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> rollbackFailed(TransactionSystemException e) {
+        if (!isQueryTimeout(e.getApplicationException())) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(deadlineExceeded((RuntimeException) e.getApplicationException()));
+    }
+
+    static boolean isQueryTimeout(Throwable e) {
+        return e instanceof QueryTimeoutException || e instanceof javax.persistence.QueryTimeoutException;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.deadline;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
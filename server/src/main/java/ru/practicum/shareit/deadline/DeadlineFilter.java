@@ -0,0 +1,46 @@
+package ru.practicum.shareit.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long timeout = parseTimeout(request.getHeader(RequestDeadline.HEADER));
+        if (timeout == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (timeout <= 0) {
+            log.info("Запрос {} {} пришёл после истечения дедлайна", request.getMethod(), request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Истекло время на обработку запроса");
+            return;
+        }
+        RequestDeadline.start(timeout);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private static Long parseTimeout(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
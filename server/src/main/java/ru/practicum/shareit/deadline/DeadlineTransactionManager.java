@@ -0,0 +1,28 @@
+package ru.practicum.shareit.deadline;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Shortens the timeout of every transaction to the time left for the current request. Spring then passes the rest of
+ * it to each query of the transaction as the JDBC query timeout, and refuses to start new queries once it runs out.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Long remaining = RequestDeadline.remainingMillis();
+        if (remaining == null) {
+            return timeout;
+        }
+        if (remaining <= 0) {
+            throw new TransactionTimedOutException("Истекло время на обработку запроса");
+        }
+        // Transaction and JDBC timeouts are whole seconds, and Hibernate truncates what is left of the transaction and
+        // gives up when it reaches zero, so round up and add a second to not cut the request short
+        int remainingSeconds = (int) Math.min(Integer.MAX_VALUE - 1, (remaining + 999) / 1000) + 1;
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+    }
+}
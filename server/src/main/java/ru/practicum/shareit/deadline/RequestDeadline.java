@@ -0,0 +1,41 @@
+package ru.practicum.shareit.deadline;
+
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of the request handled by the current thread, taken from the time budget the gateway has left for it.
+ */
+public final class RequestDeadline {
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    static void start(long timeoutMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Milliseconds left until the deadline, negative once it has passed, or null if the request has none.
+     */
+    @Nullable
+    public static Long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) : null;
+    }
+
+    public static void check() {
+        Long remaining = remainingMillis();
+        if (remaining != null && remaining <= 0) {
+            throw new DeadlineExceededException("Истекло время на обработку запроса");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.etag;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tags successful GET responses with an ETag and answers a matching If-None-Match with 304 before the body reaches
+ * the message converter. Single resources get strong tags, lists get weak ones.
+ * <p>
+ * The tag is an MD5 of the DTO streamed straight into the digest: the DTOs combine several entities and depend on
+ * the current time (last and next booking), so entity versions alone can't tell whether they changed.
+ */
+@RestControllerAdvice
+public class EtagResponseAdvice implements ResponseBodyAdvice<Object> {
+    private final ObjectWriter writer;
+    private final Counter notModified;
+
+    public EtagResponseAdvice(ObjectMapper mapper, MeterRegistry registry) {
+        this.writer = mapper.writer();
+        this.notModified = Counter.builder("shareit.server.not.modified")
+                .description("GET requests answered with 304 Not Modified")
+                .register(registry);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || request.getMethod() != HttpMethod.GET || !(response instanceof ServletServerHttpResponse)) {
+            return body;
+        }
+        HttpServletResponse servletResponse = ((ServletServerHttpResponse) response).getServletResponse();
+        if (servletResponse.getStatus() != HttpStatus.OK.value()) {
+            return body;
+        }
+
+        String etag = etag(body, contentType);
+        // Set on the servlet response: with no body to write the wrapper would never flush its own headers
+        servletResponse.setHeader(HttpHeaders.ETAG, etag);
+        if (matches(request.getHeaders().getIfNoneMatch(), etag)) {
+            notModified.increment();
+            servletResponse.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return null;
+        }
+        return body;
+    }
+
+    private String etag(Object body, MediaType contentType) {
+        MessageDigest digest = md5();
+        // JSON and Smile are different representations of the same DTO
+        digest.update(contentType.toString().getBytes(StandardCharsets.US_ASCII));
+        try {
+            writer.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String tag = '"' + String.format("%032x", new BigInteger(1, digest.digest())) + '"';
+        return body instanceof Collection || body.getClass().isArray() ? "W/" + tag : tag;
+    }
+
+    // If-None-Match uses the weak comparison, so the W/ prefix on either side doesn't matter
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = opaque(etag);
+        return ifNoneMatch.stream()
+                .anyMatch(candidate -> candidate.equals("*") || opaque(candidate).equals(opaque));
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+@Slf4j
+public class IdempotencyErrorHandler {
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> idempotencyKeyBadRequest(IdempotencyKeyBadRequestException e) {
+        log.info("error: {}", e.getMessage());
+        return Map.of("error", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public Map<String, String> idempotencyKeyReused(IdempotencyKeyReusedException e) {
+        log.info("error: {}", e.getMessage());
+        return Map.of("error", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> idempotencyKeyInProgress(IdempotencyKeyInProgressException e) {
+        log.info("error: {}", e.getMessage());
+        return Map.of("error", e.getMessage());
+    }
+}
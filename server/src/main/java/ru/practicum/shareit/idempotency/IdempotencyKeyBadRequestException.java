@@ -0,0 +1,7 @@
+package ru.practicum.shareit.idempotency;
+
+public class IdempotencyKeyBadRequestException extends RuntimeException {
+    public IdempotencyKeyBadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.idempotency;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
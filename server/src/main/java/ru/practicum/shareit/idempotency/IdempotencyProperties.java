@@ -0,0 +1,15 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.idempotency")
+public class IdempotencyProperties {
+    private Duration ttl = Duration.ofHours(24);
+    private Duration cleanupInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+@Getter
+@Setter
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "user_id")
+    private long userId;
+
+    @Column(name = "request_hash")
+    private String requestHash;
+
+    private String response;
+
+    private LocalDateTime created;
+
+    public IdempotencyRecord(String key, long userId, String requestHash, LocalDateTime created) {
+        this.key = key;
+        this.userId = userId;
+        this.requestHash = requestHash;
+        this.created = created;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndKey(long userId, String key);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord as record where record.created < ?1")
+    int deleteAllCreatedBefore(LocalDateTime threshold);
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.lang.Nullable;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * Runs the action once per user and key: a repeated request gets the stored response without running it again.
+     * Without a key the action just runs.
+     */
+    <T> T execute(@Nullable String key, long userId, String operation, Object request, Class<T> responseType,
+                  Supplier<T> action);
+
+    void removeExpired();
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The key row is inserted in the same transaction as the created entity and gets the response before commit, so a
+ * committed key always has a response and a rolled back request leaves no key behind. A concurrent duplicate blocks
+ * on the unique constraint until the first transaction ends, then replays its response.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository repository, IdempotencyProperties properties,
+                                  ObjectMapper mapper, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T execute(@Nullable String key, long userId, String operation, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyBadRequestException("Ключ идемпотентности должен быть непустым и не длиннее "
+                    + MAX_KEY_LENGTH + " символов");
+        }
+
+        String requestHash = hash(operation, request);
+        Optional<T> replayed = replay(key, userId, requestHash, responseType);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+
+        Optional<T> response = transactionTemplate.execute(status -> {
+            IdempotencyRecord record;
+            try {
+                record = repository.saveAndFlush(new IdempotencyRecord(key, userId, requestHash, LocalDateTime.now()));
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                status.setRollbackOnly();
+                return Optional.empty();
+            }
+            T result = action.get();
+            record.setResponse(write(result));
+            return Optional.of(result);
+        });
+        return response.or(() -> replay(key, userId, requestHash, responseType))
+                .orElseThrow(() -> new IdempotencyKeyInProgressException("Запрос с ключом идемпотентности "
+                        + key + " ещё выполняется"));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit-server.idempotency.cleanup-interval:PT10M}")
+    public void removeExpired() {
+        int removed = repository.deleteAllCreatedBefore(LocalDateTime.now().minus(properties.getTtl()));
+        if (removed > 0) {
+            log.info("Удалено устаревших ключей идемпотентности: {}", removed);
+        }
+    }
+
+    private <T> Optional<T> replay(String key, long userId, String requestHash, Class<T> responseType) {
+        Optional<IdempotencyRecord> record = repository.findByUserIdAndKey(userId, key);
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!record.get().getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Ключ идемпотентности " + key
+                    + " уже использован для другого запроса");
+        }
+        log.info("Повтор запроса с ключом идемпотентности: {} для user_id: {}", key, userId);
+        try {
+            return Optional.of(mapper.readValue(record.get().getResponse(), responseType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return mapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(mapper.writeValueAsBytes(request));
+            return String.format("%032x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Busy hours of one item as a bitmap per month. Every bit is backed by a counter of the bookings
+ * touching that hour, so bookings sharing an hour can be added and removed independently.
+ * Adding or removing the same booking twice has no effect. Not thread-safe.
+ */
+public class AvailabilityCalendar {
+    private final Map<YearMonth, Month> months = new HashMap<>();
+    private final NavigableSet<Long> bookings = new TreeSet<>();
+
+    public void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (bookings.add(bookingId)) {
+            update(start, end, 1);
+        }
+    }
+
+    public void remove(long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (bookings.remove(bookingId)) {
+            update(start, end, -1);
+        }
+    }
+
+    public int size() {
+        return bookings.size();
+    }
+
+    /**
+     * Tells whether the calendar holds the given number of bookings with the given greatest id. Booking ids
+     * only grow, so any booking added or removed since the calendar was built changes one of the two.
+     */
+    public boolean matches(long count, Long lastBookingId) {
+        return bookings.size() == count && Objects.equals(bookings.isEmpty() ? null : bookings.last(), lastBookingId);
+    }
+
+    /**
+     * Splits [from, to) into alternating free and busy intervals. Hours are the unit, so an hour
+     * with any booking in it is busy as a whole.
+     */
+    public List<Interval> intervals(LocalDateTime from, LocalDateTime to) {
+        List<Interval> intervals = new ArrayList<>();
+        LocalDateTime cursor = from;
+        while (cursor.isBefore(to)) {
+            YearMonth yearMonth = YearMonth.from(cursor);
+            LocalDateTime monthStart = yearMonth.atDay(1).atStartOfDay();
+            LocalDateTime monthEnd = monthStart.plusMonths(1);
+            LocalDateTime limit = to.isBefore(monthEnd) ? to : monthEnd;
+            Month month = months.get(yearMonth);
+            if (month == null) {
+                append(intervals, cursor, limit, false);
+                cursor = limit;
+                continue;
+            }
+            int index = hourOfMonth(cursor);
+            int limitIndex = limit.equals(monthEnd) ? month.counts.length : hoursUntil(limit);
+            while (index < limitIndex) {
+                boolean busy = month.busy.get(index);
+                int next = busy ? month.busy.nextClearBit(index) : month.busy.nextSetBit(index);
+                if (next < 0 || next > limitIndex) {
+                    next = limitIndex;
+                }
+                LocalDateTime runEnd = monthStart.plusHours(next);
+                runEnd = runEnd.isBefore(limit) ? runEnd : limit;
+                append(intervals, cursor, runEnd, busy);
+                cursor = runEnd;
+                index = next;
+            }
+            cursor = limit;
+        }
+        return intervals;
+    }
+
+    /**
+     * Whether no hour touching [from, to) is busy.
+     */
+    public boolean isFree(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime cursor = from;
+        while (cursor.isBefore(to)) {
+            YearMonth yearMonth = YearMonth.from(cursor);
+            LocalDateTime monthEnd = yearMonth.atDay(1).atStartOfDay().plusMonths(1);
+            Month month = months.get(yearMonth);
+            if (month != null) {
+                int limitIndex = to.isBefore(monthEnd) ? hoursUntil(to) : month.counts.length;
+                int busy = month.busy.nextSetBit(hourOfMonth(cursor));
+                if (busy >= 0 && busy < limitIndex) {
+                    return false;
+                }
+            }
+            cursor = monthEnd;
+        }
+        return true;
+    }
+
+    private void update(LocalDateTime start, LocalDateTime end, int delta) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+        while (hour.isBefore(end)) {
+            YearMonth yearMonth = YearMonth.from(hour);
+            LocalDateTime monthEnd = yearMonth.atDay(1).atStartOfDay().plusMonths(1);
+            Month month = months.computeIfAbsent(yearMonth, Month::new);
+            int to = end.isBefore(monthEnd) ? hoursUntil(end) : month.counts.length;
+            month.update(hourOfMonth(hour), to, delta);
+            if (month.busy.isEmpty()) {
+                months.remove(yearMonth);
+            }
+            hour = monthEnd;
+        }
+    }
+
+    private static void append(List<Interval> intervals, LocalDateTime start, LocalDateTime end, boolean busy) {
+        if (!intervals.isEmpty()) {
+            Interval last = intervals.get(intervals.size() - 1);
+            if (last.isBusy() == busy) {
+                intervals.set(intervals.size() - 1, new Interval(last.getStart(), end, busy));
+                return;
+            }
+        }
+        intervals.add(new Interval(start, end, busy));
+    }
+
+    /**
+     * The start of the hour holding the given time. A booking ending after it touches that hour.
+     */
+    public static LocalDateTime hourStart(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    /**
+     * The end of the hour holding the given time, or the time itself on an hour boundary. A booking starting
+     * before it touches that hour.
+     */
+    public static LocalDateTime hourEnd(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(time) ? time : hour.plusHours(1);
+    }
+
+    private static int hourOfMonth(LocalDateTime time) {
+        return (time.getDayOfMonth() - 1) * 24 + time.getHour();
+    }
+
+    // Index of the first hour starting at or after the given time
+    private static int hoursUntil(LocalDateTime time) {
+        return time.equals(time.truncatedTo(ChronoUnit.HOURS)) ? hourOfMonth(time) : hourOfMonth(time) + 1;
+    }
+
+    @Value
+    public static class Interval {
+        LocalDateTime start;
+        LocalDateTime end;
+        boolean busy;
+    }
+
+    private static class Month {
+        private final short[] counts;
+        private final BitSet busy;
+
+        private Month(YearMonth yearMonth) {
+            counts = new short[yearMonth.lengthOfMonth() * 24];
+            busy = new BitSet(counts.length);
+        }
+
+        private void update(int from, int to, int delta) {
+            for (int i = from; i < to; i++) {
+                counts[i] += delta;
+                if (counts[i] > 0) {
+                    busy.set(i);
+                } else {
+                    busy.clear(i);
+                }
+            }
+        }
+    }
+}
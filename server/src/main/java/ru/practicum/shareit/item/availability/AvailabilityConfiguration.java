@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.availability;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AvailabilityProperties.class)
+public class AvailabilityConfiguration {
+}
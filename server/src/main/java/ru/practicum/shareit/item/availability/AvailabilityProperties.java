@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.availability")
+public class AvailabilityProperties {
+    private long maxItems = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+}
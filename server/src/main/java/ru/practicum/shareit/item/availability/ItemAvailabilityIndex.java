@@ -0,0 +1,177 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPeriod;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStamp;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.Util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.Util.getItem;
+
+/**
+ * Availability calendars of items built from their WAITING and APPROVED bookings. A calendar is loaded on
+ * first use and kept up to date after commit. Before a calendar is used, the count and the greatest id of
+ * the item's active bookings are read from the database, and a calendar that does not match them is loaded
+ * again, so bookings written by other instances or outside the service are seen. Calendars are kept for
+ * a bounded number of items and reloaded after a fixed time.
+ */
+@Slf4j
+@Component
+public class ItemAvailabilityIndex {
+    private final ConcurrentMap<Long, Entry> calendars;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository, ItemRepository itemRepository,
+                                 AvailabilityProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        Cache<Long, Entry> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxItems())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.calendars = cache.asMap();
+    }
+
+    public List<AvailabilityCalendar.Interval> getIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        BookingStamp stamp = bookingRepository.findActiveStampByItemId(itemId);
+        Entry entry = calendars.get(itemId);
+        if (entry == null) {
+            getItem(itemRepository, itemId);
+        } else if (!entry.matches(stamp)) {
+            log.debug("Календарь доступности предмета с id: {} устарел", itemId);
+            calendars.remove(itemId, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            entry = entries(List.of(itemId)).get(itemId);
+        }
+        AvailabilityCalendar calendar = entry.await();
+        synchronized (entry) {
+            return calendar.intervals(from, to);
+        }
+    }
+
+    /**
+     * Applies a created booking or a changed booking status to the item calendar once the transaction commits.
+     */
+    public void saved(Booking booking) {
+        if (booking.getStart() == null || booking.getEnd() == null) {
+            return;
+        }
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean active = booking.getStatus() == BookingStatus.WAITING || booking.getStatus() == BookingStatus.APPROVED;
+        Util.afterCommit(() -> {
+            Entry entry = calendars.get(itemId);
+            if (entry == null) {
+                return;
+            }
+            entry.apply(calendar -> {
+                if (active) {
+                    calendar.add(bookingId, start, end);
+                } else {
+                    calendar.remove(bookingId, start, end);
+                }
+            });
+        });
+    }
+
+    private Map<Long, Entry> entries(Collection<Long> itemIds) {
+        Map<Long, Entry> entries = new HashMap<>();
+        Map<Long, Entry> created = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            Entry entry = calendars.get(itemId);
+            if (entry == null) {
+                Entry candidate = new Entry();
+                entry = calendars.putIfAbsent(itemId, candidate);
+                if (entry == null) {
+                    entry = candidate;
+                    created.put(itemId, candidate);
+                }
+            }
+            entries.put(itemId, entry);
+        }
+        if (!created.isEmpty()) {
+            load(created);
+        }
+        return entries;
+    }
+
+    // Entries are published before the bookings are read: updates committed meanwhile are queued and replayed
+    // after the loaded bookings, repeated ones are ignored by the calendar
+    private void load(Map<Long, Entry> created) {
+        Map<Long, List<BookingPeriod>> periods;
+        try {
+            periods = bookingRepository.findAllActivePeriodsByItemIdIn(created.keySet()).stream()
+                    .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+        } catch (RuntimeException e) {
+            created.forEach((itemId, entry) -> {
+                calendars.remove(itemId, entry);
+                entry.loaded.completeExceptionally(e);
+            });
+            throw e;
+        }
+        created.forEach((itemId, entry) -> entry.load(periods.getOrDefault(itemId, List.of())));
+        log.debug("Загружены календари доступности предметов: {}", created.keySet());
+    }
+
+    private static class Entry {
+        private final AvailabilityCalendar calendar = new AvailabilityCalendar();
+        private final CompletableFuture<AvailabilityCalendar> loaded = new CompletableFuture<>();
+        private List<Consumer<AvailabilityCalendar>> pending = new ArrayList<>();
+
+        private synchronized void apply(Consumer<AvailabilityCalendar> update) {
+            if (pending != null) {
+                pending.add(update);
+            } else {
+                update.accept(calendar);
+            }
+        }
+
+        private void load(List<BookingPeriod> periods) {
+            synchronized (this) {
+                periods.forEach(period -> calendar.add(period.getId(), period.getStart(), period.getEnd()));
+                pending.forEach(update -> update.accept(calendar));
+                pending = null;
+            }
+            loaded.complete(calendar);
+        }
+
+        private boolean matches(BookingStamp stamp) {
+            AvailabilityCalendar calendar = await();
+            synchronized (this) {
+                return calendar.matches(stamp.getCount(), stamp.getLastId());
+            }
+        }
+
+        private AvailabilityCalendar await() {
+            try {
+                return loaded.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+}
@@ -2,11 +2,16 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.exception.AvailabilityBadRequestException;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Slf4j
@@ -15,12 +20,16 @@ import java.util.Collection;
 public class ItemController {
     @Autowired
     private ItemService itemService;
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                           @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                            @RequestBody ItemDto itemDto) {
         log.info("POST запрос для id: {}, item: {}", userId, itemDto);
-        return itemService.add(userId, itemDto);
+        return idempotencyService.execute(idempotencyKey, userId, "POST /items", itemDto, ItemDto.class,
+                () -> itemService.add(userId, itemDto));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -47,6 +56,15 @@ public class ItemController {
         return itemService.get(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET запрос доступности itemId: {}, от userId: {}", itemId, userId);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping
     public Collection<ItemDto> getAllItems(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @RequestParam(name = "from") int from,
@@ -57,9 +75,17 @@ public class ItemController {
 
     @GetMapping("/search")
     public Collection<ItemDto> findAvailableItems(@RequestParam(name = "text") String text,
+                                                  @RequestParam(name = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                  @RequestParam(name = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                                   @RequestParam(name = "from") int from,
                                                   @RequestParam(name = "size") int size) {
-        log.info("GET запрос на поиск с text: {}", text);
-        return itemService.findAvailable(text, from, size);
+        log.info("GET запрос на поиск с text: {}, start: {}, end: {}", text, start, end);
+        if (start == null && end == null) {
+            return itemService.findAvailable(text, from, size);
+        }
+        if (start == null || end == null) {
+            throw new AvailabilityBadRequestException("Для поиска свободных предметов нужны оба параметра start и end");
+        }
+        return itemService.findAvailable(text, start, end, from, size);
     }
 }
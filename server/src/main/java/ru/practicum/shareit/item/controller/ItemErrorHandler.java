@@ -5,6 +5,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.item.exception.AvailabilityBadRequestException;
 import ru.practicum.shareit.item.exception.CommentBadRequestException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.UpdateForbiddenException;
@@ -36,4 +37,11 @@ public class ItemErrorHandler {
         return Map.of("comment error", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> availabilityBadRequest(AvailabilityBadRequestException e) {
+        log.info("availability error: {}", e.getMessage());
+        return Map.of("availability error", e.getMessage());
+    }
+
 }
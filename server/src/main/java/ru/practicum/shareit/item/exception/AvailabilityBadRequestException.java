@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.exception;
+
+public class AvailabilityBadRequestException extends RuntimeException {
+    public AvailabilityBadRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.Collection;
@@ -9,7 +10,9 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @Query("select comment from Comment as comment where comment.item.id = ?1")
     List<Comment> findAllByItemId(long itemId);
 
+    @Query("select comment from Comment as comment where comment.item.id in ?1")
     List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
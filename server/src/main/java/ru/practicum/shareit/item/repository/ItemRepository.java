@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -18,5 +19,16 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByDescriptionContainingIgnoreCaseOrNameContainingIgnoreCase(String text1, String text2, Pageable page);
 
+    @Query("select item from Item as item where item.available = true " +
+            "and (upper(item.name) like upper(concat('%', ?1, '%')) or upper(item.description) like upper(concat('%', ?1, '%'))) " +
+            "and not exists (select b.id from Booking as b where b.item = item and b.status in ('APPROVED', 'WAITING') " +
+            "and b.start < ?3 and b.end > ?2) " +
+            "order by item.id")
+    List<Item> findAllAvailableFreeByText(String text, LocalDateTime start, LocalDateTime end, Pageable page);
+
+    @Query(value = "select id from items where id = ?1 for update", nativeQuery = true)
+    Long lockById(long itemId);
+
+    @Query("select item from Item as item where item.request.id in ?1")
     Collection<Item> findAllByRequestIdIn(Collection<Long> requestsIds);
 }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 public interface ItemService {
@@ -17,5 +19,9 @@ public interface ItemService {
 
     Collection<ItemDto> findAvailable(String text, int from, int size);
 
+    Collection<ItemDto> findAvailable(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
     CommentDto addComment(long itemId, long userId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -10,8 +10,14 @@ import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingSimpleDto;
+import ru.practicum.shareit.deadline.RequestDeadline;
+import ru.practicum.shareit.item.availability.AvailabilityCalendar;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.exception.AvailabilityBadRequestException;
 import ru.practicum.shareit.item.exception.CommentBadRequestException;
 import ru.practicum.shareit.item.exception.UpdateForbiddenException;
 import ru.practicum.shareit.item.model.Comment;
@@ -22,6 +28,7 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -31,6 +38,8 @@ import static ru.practicum.shareit.util.Util.*;
 @Slf4j
 @Service
 public class ItemServiceImpl implements ItemService {
+    private static final Duration MAX_AVAILABILITY_RANGE = Duration.ofDays(366);
+
     @Autowired
     private ItemRepository itemRepository;
     @Autowired
@@ -43,8 +52,11 @@ public class ItemServiceImpl implements ItemService {
     private CommentRepository commentRepository;
     @Autowired
     private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
+    @Transactional
     public ItemDto add(long userId, ItemDto itemDto) {
         User user = getUser(userRepository, userId);
         Item item = modelMapper.map(itemDto, Item.class);
@@ -58,6 +70,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public ItemDto update(long userId, ItemDto itemDto) {
         User user = getUser(userRepository, userId);
         Item item = getItem(itemRepository, itemDto.getId());
@@ -96,6 +109,7 @@ public class ItemServiceImpl implements ItemService {
         }
         List<Booking> bookings = bookingRepository.findAllByItemIdIn(itemDtos.keySet());
         List<Comment> comments = commentRepository.findAllByItemIdIn(itemDtos.keySet());
+        RequestDeadline.check();
         LocalDateTime now = LocalDateTime.now();
         for (Booking booking : bookings) {
             Long itemId = booking.getItem().getId();
@@ -150,6 +164,19 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Collection<ItemDto> findAvailable(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        checkPeriod(start, end);
+        log.info("Поиск предметов со строкой: {}, свободных с {} по {}", text, start, end);
+        PageRequest page = PageRequest.of(from / size, size);
+        return itemRepository.findAllAvailableFreeByText(text, AvailabilityCalendar.hourStart(start),
+                        AvailabilityCalendar.hourEnd(end), page).stream()
+                .map(item -> modelMapper.map(item, ItemDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
     public CommentDto addComment(long itemId, long userId, CommentDto commentDto) {
         Item item = getItem(itemRepository, itemId);
         User user = getUser(userRepository, userId);
@@ -174,6 +201,18 @@ public class ItemServiceImpl implements ItemService {
         return modelMapper.map(reply, CommentDto.class);
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        checkPeriod(from, to);
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        List<AvailabilityIntervalDto> busy = new ArrayList<>();
+        for (AvailabilityCalendar.Interval interval : itemAvailabilityIndex.getIntervals(itemId, from, to)) {
+            (interval.isBusy() ? busy : free).add(new AvailabilityIntervalDto(interval.getStart(), interval.getEnd()));
+        }
+        log.info("Запрошена доступность предмета с id: {} с {} по {}", itemId, from, to);
+        return new ItemAvailabilityDto(itemId, from, to, free, busy);
+    }
+
     @Transactional(readOnly = true)
     private void getCommentsForItem(ItemDto itemDto) {
         List<Comment> comments = commentRepository.findAllByItemId(itemDto.getId());
@@ -183,4 +222,13 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList())
         );
     }
+
+    private static void checkPeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new AvailabilityBadRequestException("Начало периода должно быть раньше конца: " + from + " - " + to);
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new AvailabilityBadRequestException("Период не может быть длиннее " + MAX_AVAILABILITY_RANGE.toDays() + " дней");
+        }
+    }
 }
@@ -2,12 +2,15 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("select request from ItemRequest as request where request.requestor.id = ?1 order by request.created desc")
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(long userId);
 
+    @Query("select request from ItemRequest as request where request.requestor.id <> ?1 order by request.created desc")
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(long userId, Pageable page);
 }
@@ -5,6 +5,8 @@ import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.deadline.RequestDeadline;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -32,6 +34,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private ModelMapper modelMapper;
 
     @Override
+    @Transactional
     public ItemRequestDto add(long userId, ItemRequestDto itemRequestDto) {
         User user = getUser(userRepository, userId);
         ItemRequest itemRequest = modelMapper.map(itemRequestDto, ItemRequest.class);
@@ -42,6 +45,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemRequestDto> getOwn(long userId) {
         User user = getUser(userRepository, userId);
         log.info("Запрос всех собственных itemRequests от пользователя с id: {}", userId);
@@ -52,6 +56,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemRequestDto> getAll(long userId, int from, int size) {
         User user = getUser(userRepository, userId);
         PageRequest page = PageRequest.of(from / size, size);
@@ -63,6 +68,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto get(long userId, long itemRequestId) {
         User user = getUser(userRepository, userId);
         log.info("Запрос itemRequest с id: {}, от пользователя с id: {}", itemRequestId, userId);
@@ -77,7 +83,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             requestsMap.put(request.getId(), request);
         });
 
-        for (Item item : itemRepository.findAllByRequestIdIn(requestsMap.keySet())) {
+        Collection<Item> items = itemRepository.findAllByRequestIdIn(requestsMap.keySet());
+        RequestDeadline.check();
+        for (Item item : items) {
             ItemRequestDto itemRequestDto = requestsMap.get(item.getRequest().getId());
             ItemDto itemDto = modelMapper.map(item, ItemDto.class);
             itemRequestDto.getItems().add(itemDto);
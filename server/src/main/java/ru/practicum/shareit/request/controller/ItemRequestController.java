@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.controller;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -14,12 +15,16 @@ import java.util.Collection;
 public class ItemRequestController {
     @Autowired
     private ItemRequestService itemRequestService;
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     @PostMapping
     ItemRequestDto addItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                  @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                                   @RequestBody ItemRequestDto itemRequestDto) {
         log.info("POST запрос от пользователя с id: {}\n{}", userId, itemRequestDto.getDescription());
-        return itemRequestService.add(userId, itemRequestDto);
+        return idempotencyService.execute(idempotencyKey, userId, "POST /requests", itemRequestDto, ItemRequestDto.class,
+                () -> itemRequestService.add(userId, itemRequestDto));
     }
 
     @GetMapping
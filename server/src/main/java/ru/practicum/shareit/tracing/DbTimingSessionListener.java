@@ -0,0 +1,31 @@
+package ru.practicum.shareit.tracing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Registered through hibernate.session.events.auto, so Hibernate creates one per session.
+ */
+public class DbTimingSessionListener extends BaseSessionEventListener {
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ServerTiming.dbExecuted(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ServerTiming.dbExecuted(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Per-request phase durations for the Server-Timing header, kept on the request thread.
+ * The phases don't overlap: SQL run by lazy loading during mapping is counted as db only.
+ */
+public final class ServerTiming {
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private long db;
+    private long mapping;
+    private int mappingDepth;
+    private long serializationStart;
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void dbExecuted(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.db += nanos;
+            if (timing.mappingDepth > 0) {
+                timing.mapping -= nanos;
+            }
+        }
+    }
+
+    static long mappingStarted() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.mappingDepth++;
+        }
+        return System.nanoTime();
+    }
+
+    static void mappingFinished(long startNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && --timing.mappingDepth == 0) {
+            timing.mapping += System.nanoTime() - startNanos;
+        }
+    }
+
+    static void serializationStarted() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStart == 0) {
+            timing.serializationStart = System.nanoTime();
+        }
+    }
+
+    String header() {
+        long now = System.nanoTime();
+        StringJoiner header = new StringJoiner(", ");
+        header.add(entry("db", db));
+        header.add(entry("mapping", mapping));
+        if (serializationStart != 0) {
+            header.add(entry("serialization", now - serializationStart));
+        }
+        header.add(entry("app", now - start));
+        return header.toString();
+    }
+
+    private static String entry(String name, long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.2f", name, nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Adds the Server-Timing header. The body is held back until the chain returns, since headers can't follow it;
+ * the filter sits inside GzipResponseFilter, so the copy is of the uncompressed body.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            response.setHeader(ServerTiming.HEADER, timing.header());
+        } finally {
+            ServerTiming.end();
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
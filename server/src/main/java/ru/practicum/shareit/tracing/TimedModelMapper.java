@@ -0,0 +1,68 @@
+package ru.practicum.shareit.tracing;
+
+import org.modelmapper.ModelMapper;
+
+import java.lang.reflect.Type;
+
+public class TimedModelMapper extends ModelMapper {
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType) {
+        long start = ServerTiming.mappingStarted();
+        try {
+            return super.map(source, destinationType);
+        } finally {
+            ServerTiming.mappingFinished(start);
+        }
+    }
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType, String typeMapName) {
+        long start = ServerTiming.mappingStarted();
+        try {
+            return super.map(source, destinationType, typeMapName);
+        } finally {
+            ServerTiming.mappingFinished(start);
+        }
+    }
+
+    @Override
+    public void map(Object source, Object destination) {
+        long start = ServerTiming.mappingStarted();
+        try {
+            super.map(source, destination);
+        } finally {
+            ServerTiming.mappingFinished(start);
+        }
+    }
+
+    @Override
+    public void map(Object source, Object destination, String typeMapName) {
+        long start = ServerTiming.mappingStarted();
+        try {
+            super.map(source, destination, typeMapName);
+        } finally {
+            ServerTiming.mappingFinished(start);
+        }
+    }
+
+    @Override
+    public <D> D map(Object source, Type destinationType) {
+        long start = ServerTiming.mappingStarted();
+        try {
+            return super.map(source, destinationType);
+        } finally {
+            ServerTiming.mappingFinished(start);
+        }
+    }
+
+    @Override
+    public <D> D map(Object source, Type destinationType, String typeMapName) {
+        long start = ServerTiming.mappingStarted();
+        try {
+            return super.map(source, destinationType, typeMapName);
+        } finally {
+            ServerTiming.mappingFinished(start);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the trace ID forwarded by the gateway, or a new one for direct calls, into the log context.
+ */
+public class TraceIdFilter extends OncePerRequestFilter {
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[0-9A-Za-z-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (traceId == null || !VALID_TRACE_ID.matcher(traceId).matches()) {
+            traceId = newTraceId();
+        }
+        MDC.put(TRACE_ID_MDC_KEY, traceId);
+        response.setHeader(TRACE_ID_HEADER, traceId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID_MDC_KEY);
+        }
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+}
@@ -40,6 +40,12 @@ public class UserController {
         return userService.getAll();
     }
 
+    @GetMapping("/ids")
+    Collection<Long> userIdsGet() {
+        log.info("GET запрос для id всех users");
+        return userService.getAllIds();
+    }
+
     @DeleteMapping("/{id}")
     void userDelete(@PathVariable long id) {
         log.info("DELETE запрос для user c id: {}", id);
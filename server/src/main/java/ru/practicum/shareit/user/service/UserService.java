@@ -14,5 +14,7 @@ public interface UserService {
 
     Collection<UserDto> getAll();
 
+    Collection<Long> getAllIds();
+
     void remove(long id);
 }
@@ -55,6 +55,13 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Long> getAllIds() {
+        log.info("Запрошены id всех пользователей");
+        return userRepository.findAllIds();
+    }
+
     @Override
     public void remove(long id) {
         log.info("Удалены данные пользователя с id: {}", id);
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.wireformat;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Smile (binary JSON) for the gateway hop, negotiated with Accept/Content-Type: application/x-jackson-smile.
+ * Spring MVC registers a Smile converter by itself once jackson-dataformat-smile is present, but with
+ * a plain mapper; it is replaced with one built like the JSON mapper so both encode dates the same way.
+ */
+@Component
+public class SmileWireFormatConfigurer implements WebMvcConfigurer {
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builder;
+
+    public SmileWireFormatConfigurer(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        this.builder = builder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2SmileHttpMessageConverter smileConverter = new MappingJackson2SmileHttpMessageConverter(
+                builder.getIfAvailable(Jackson2ObjectMapperBuilder::new).factory(new SmileFactory()).build());
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(smileConverter);
+    }
+}
@@ -46,3 +46,23 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT comments_items_item_id_fk FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
 );
 
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH 1 INCREMENT BY 1) PRIMARY KEY,
+    idempotency_key VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    request_hash VARCHAR(32) NOT NULL,
+    response VARCHAR,
+    created TIMESTAMP NOT NULL,
+    CONSTRAINT idempotency_keys_user_id_key_unique UNIQUE (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idempotency_keys_created_idx ON idempotency_keys (created);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (user_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+CREATE INDEX IF NOT EXISTS item_requests_requestor_created_idx ON item_requests (user_id, created DESC);
+CREATE INDEX IF NOT EXISTS item_requests_created_idx ON item_requests (created DESC);
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and encode/decode cost of a GET /bookings and GET /bookings/owner page
+ * in JSON and Smile. Run {@link #main} from the IDE or with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingListWireFormatBenchmark {
+    private static final TypeReference<List<BookingDto>> BOOKING_LIST = new TypeReference<>() {
+    };
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper smileMapper;
+    private List<BookingDto> bookings;
+    private byte[] json;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonMapper = mapperBuilder().build();
+        smileMapper = mapperBuilder().factory(new SmileFactory()).build();
+        bookings = bookings(size);
+        json = jsonMapper.writeValueAsBytes(bookings);
+        smile = smileMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public List<BookingDto> decodeJson() throws IOException {
+        return jsonMapper.readValue(json, BOOKING_LIST);
+    }
+
+    @Benchmark
+    public List<BookingDto> decodeSmile() throws IOException {
+        return smileMapper.readValue(smile, BOOKING_LIST);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int size : new int[]{20, 100}) {
+            List<BookingDto> bookings = bookings(size);
+            byte[] json = mapperBuilder().build().writeValueAsBytes(bookings);
+            byte[] smile = mapperBuilder().factory(new SmileFactory()).build().writeValueAsBytes(bookings);
+            System.out.printf("size=%d json=%d B (gzip %d B), smile=%d B (gzip %d B)%n",
+                    size, json.length, gzip(json), smile.length, gzip(smile));
+        }
+        new Runner(new OptionsBuilder().include(BookingListWireFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static Jackson2ObjectMapperBuilder mapperBuilder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<BookingDto> bookings(int size) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        return IntStream.range(0, size)
+                .mapToObj(i -> new BookingDto((long) i, start.plusDays(i), start.plusDays(i + 1),
+                        new ItemDto((long) i % 10, "Дрель " + i % 10, "Простая дрель с двумя насадками", true,
+                                null, null, List.of(new CommentDto(1L, "Отличная дрель, рекомендую", i % 10L,
+                                "Иван", start.minusDays(1))), null),
+                        new UserDto((long) i % 5, "booker" + i % 5, "booker" + i % 5 + "@mail.ru"), "APPROVED"))
+                .collect(Collectors.toList());
+    }
+
+    private static int gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.ShareItTestsConfiguration;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSimpleDto;
@@ -29,13 +31,17 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,6 +57,8 @@ class BookingControllerTest {
     private ModelMapper modelMapper;
     @MockBean
     private BookingServiceImpl bookingService;
+    @MockBean
+    private IdempotencyService idempotencyService;
 
     private User owner = new User(1L, "owner", "owner@email.com");
     private User booker = new User(2L, "booker", "booker@email.com");
@@ -66,6 +74,12 @@ class BookingControllerTest {
             booker.getId(), item.getId(), booking.getStatus().name());
 
 
+    @BeforeEach
+    void init() {
+        when(idempotencyService.execute(any(), anyLong(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(5, Supplier.class).get());
+    }
+
     @Test
     void addBookingWithWrongUserTest() throws Exception {
         when(bookingService.add(anyLong(), any())).thenThrow(new UserNotFoundException("User not found"));
@@ -223,5 +237,42 @@ class BookingControllerTest {
 
         verify(bookingService, times(1)).getBookingsForOwnItems(owner.getId(), state, from, size);
     }
-}
 
+    @Test
+    void getOwnerBookingsOfItemTest() throws Exception {
+        when(bookingService.getBookingsForOwnItem(owner.getId(), itemDto.getId(), "ALL", 0, 1))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings/owner?state=ALL&from=0&size=1&itemId=" + itemDto.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingCursor.HEADER))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].item.id", is(itemDto.getId()), Long.class));
+
+        verify(bookingService, never()).getBookingsForOwnItems(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getBookingsNextCursorTest() throws Exception {
+        String cursor = new BookingCursor(BookingState.FUTURE, bookingDto.getStart(), bookingDto.getId()).encode();
+        when(bookingService.getOwnBookings(booker.getId(), "FUTURE", 0, 1)).thenReturn(List.of(bookingDto));
+        when(bookingService.getOwnBookings(booker.getId(), "FUTURE", cursor, 1)).thenReturn(List.of());
+
+        mockMvc.perform(get("/bookings/?state=FUTURE&from=0&size=1")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingCursor.HEADER, cursor))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/bookings/?state=FUTURE&from=0&size=1&cursor=" + cursor)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingCursor.HEADER))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(bookingService, times(1)).getOwnBookings(booker.getId(), "FUTURE", cursor, 1);
+    }
+}
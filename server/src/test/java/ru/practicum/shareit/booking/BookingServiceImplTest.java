@@ -18,8 +18,11 @@ import ru.practicum.shareit.ShareItTestsConfiguration;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSimpleDto;
 import ru.practicum.shareit.booking.exception.BookingBadRequestException;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -51,6 +54,10 @@ class BookingServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private BookingOverlapIndex bookingOverlapIndex;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -128,6 +135,18 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.APPROVED);
     }
 
+    @Test
+    void bookingAddOverlappingTest() {
+        when(userRepository.findById(any())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(any())).thenReturn(Optional.of(item));
+        when(bookingOverlapIndex.findConflict(item.getId(), bookingSimpleDto.getStart(), bookingSimpleDto.getEnd()))
+                .thenReturn(Optional.of(5L));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.add(booker.getId(), bookingSimpleDto));
+
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void approveBookingWithWrongUidTest() {
         when(userRepository.findById(any())).thenReturn(Optional.empty());
@@ -9,6 +9,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.exception.BookingBadRequestException;
+import ru.practicum.shareit.booking.exception.BookingConflictException;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -18,9 +20,14 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(properties = "db.name=test", webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -92,4 +99,119 @@ class BookingServiceIntegrationTest {
         assertEquals(2L, bookings.size());
         assertTrue(bookings.containsAll(List.of(bookingDto1, bookingDto2)));
     }
+
+    @Test
+    void getBookingsForOwnItemTest() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        Booking past = bookingRepository.save(new Booking(0L, start.minusDays(3), start.minusDays(2), item1, booker,
+                BookingStatus.APPROVED));
+        Booking future = bookingRepository.save(new Booking(0L, start, start.plusHours(1), item1, booker,
+                BookingStatus.WAITING));
+        bookingRepository.save(new Booking(0L, start, start.plusHours(1), item2, booker, BookingStatus.WAITING));
+
+        List<BookingDto> all = bookingService.getBookingsForOwnItem(owner.getId(), item1.getId(), "ALL", from, size);
+
+        assertEquals(List.of(future.getId(), past.getId()), all.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(past.getId()), bookingService.getBookingsForOwnItem(owner.getId(), item1.getId(), "PAST",
+                from, size).stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(future.getId()), bookingService.getBookingsForOwnItem(owner.getId(), item1.getId(), "ALL",
+                0, 1).stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertTrue(bookingService.getBookingsForOwnItem(booker.getId(), item1.getId(), "ALL", from, size).isEmpty());
+    }
+
+    @Test
+    void overlappingBookingIsRejectedTest() {
+        BookingSimpleDto first = modelMapper.map(booking1, BookingSimpleDto.class);
+        first.setStart(first.getStart().truncatedTo(ChronoUnit.SECONDS));
+        first.setEnd(first.getEnd().truncatedTo(ChronoUnit.SECONDS));
+        bookingService.add(booker.getId(), first);
+        BookingSimpleDto overlapping = new BookingSimpleDto(null, first.getStart().plusMinutes(30),
+                first.getEnd().plusMinutes(30), null, item1.getId(), null);
+        BookingSimpleDto adjacent = new BookingSimpleDto(null, first.getEnd(), first.getEnd().plusHours(1),
+                null, item1.getId(), null);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.add(booker.getId(), overlapping));
+        assertDoesNotThrow(() -> bookingService.add(booker.getId(), adjacent));
+        assertDoesNotThrow(() -> bookingService.add(booker.getId(), modelMapper.map(booking2, BookingSimpleDto.class)));
+    }
+
+    @Test
+    void rejectedBookingFreesPeriodTest() {
+        BookingSimpleDto first = modelMapper.map(booking1, BookingSimpleDto.class);
+        BookingDto added = bookingService.add(booker.getId(), first);
+
+        bookingService.approve(added.getId(), owner.getId(), false);
+
+        assertDoesNotThrow(() -> bookingService.add(booker.getId(), first));
+    }
+
+    @Test
+    void bookingDeletedOutsideServiceDoesNotBlockPeriodTest() {
+        BookingSimpleDto first = modelMapper.map(booking1, BookingSimpleDto.class);
+        first.setStart(first.getStart().truncatedTo(ChronoUnit.SECONDS));
+        first.setEnd(first.getEnd().truncatedTo(ChronoUnit.SECONDS));
+        bookingService.add(booker.getId(), first);
+        bookingService.add(booker.getId(), new BookingSimpleDto(null, first.getEnd(), first.getEnd().plusHours(1),
+                null, item1.getId(), null));
+
+        bookingRepository.deleteAll();
+
+        assertDoesNotThrow(() -> bookingService.add(booker.getId(), first));
+        assertThrows(BookingConflictException.class, () -> bookingService.add(booker.getId(), first));
+    }
+
+    @Test
+    void bookingSavedOutsideServiceBlocksPeriodTest() {
+        bookingRepository.save(booking1);
+
+        assertThrows(BookingConflictException.class,
+                () -> bookingService.add(booker.getId(), modelMapper.map(booking1, BookingSimpleDto.class)));
+    }
+
+    @Test
+    void pagingByCursorTest() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(new Booking(0L, start.plusDays(i), start.plusDays(i).plusHours(1), item1, booker,
+                    BookingStatus.WAITING));
+            bookingRepository.save(new Booking(0L, start.plusDays(i), start.plusDays(i).plusHours(1), item2, booker,
+                    BookingStatus.WAITING));
+        }
+        bookingRepository.save(new Booking(0L, start.minusDays(3), start.minusDays(2), item1, booker,
+                BookingStatus.APPROVED));
+
+        for (String state : List.of("ALL", "FUTURE", "WAITING", "PAST")) {
+            List<BookingDto> expected = bookingService.getOwnBookings(booker.getId(), state, 0, size);
+            assertEquals(expected, pageThrough(state, true));
+            assertEquals(bookingService.getBookingsForOwnItems(owner.getId(), state, 0, size), pageThrough(state, false));
+        }
+        assertEquals(7, bookingService.getOwnBookings(booker.getId(), "ALL", 0, size).size());
+    }
+
+    @Test
+    void cursorOfAnotherStateIsRejectedTest() {
+        String cursor = new BookingCursor(BookingState.PAST, LocalDateTime.now(), 1L).encode();
+
+        assertThrows(BookingBadRequestException.class,
+                () -> bookingService.getOwnBookings(booker.getId(), "ALL", cursor, size));
+        assertThrows(BookingBadRequestException.class,
+                () -> bookingService.getBookingsForOwnItems(owner.getId(), "ALL", "not a cursor", size));
+    }
+
+    private List<BookingDto> pageThrough(String state, boolean byBooker) {
+        int pageSize = 2;
+        List<BookingDto> page = byBooker
+                ? bookingService.getOwnBookings(booker.getId(), state, 0, pageSize)
+                : bookingService.getBookingsForOwnItems(owner.getId(), state, 0, pageSize);
+        List<BookingDto> all = new ArrayList<>(page);
+        while (page.size() == pageSize) {
+            BookingDto last = page.get(page.size() - 1);
+            String cursor = new BookingCursor(BookingState.valueOf(state), last.getStart(), last.getId()).encode();
+            page = byBooker
+                    ? bookingService.getOwnBookings(booker.getId(), state, cursor, pageSize)
+                    : bookingService.getBookingsForOwnItems(owner.getId(), state, cursor, pageSize);
+            all.addAll(page);
+        }
+        return all;
+    }
 }
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.compression;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipResponseFilterTest {
+    private static final String LARGE_JSON = "[" + "{\"id\":1,\"name\":\"Дрель\"},".repeat(200) + "{}]";
+    private static final String SMALL_JSON = "{\"id\":1}";
+    private static final String ETAG = "\"5d41402abc4b2a76b9719d911017c592\"";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GzipResponseFilter filter = new GzipResponseFilter(1024, registry);
+
+    @Test
+    void largeJsonIsCompressedTest() throws Exception {
+        MockHttpServletResponse response = filter(LARGE_JSON, "gzip, deflate");
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        byte[] compressed = response.getContentAsByteArray();
+        assertTrue(compressed.length < LARGE_JSON.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(compressed.length, response.getContentLength());
+        assertEquals(LARGE_JSON, gunzip(compressed));
+        assertEquals(1, registry.get("shareit.server.compression").timer().count());
+        assertTrue(registry.get("shareit.server.compression.ratio").summary().mean() > 1);
+    }
+
+    @Test
+    void smallJsonIsNotCompressedTest() throws Exception {
+        MockHttpServletResponse response = filter(SMALL_JSON, "gzip");
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(SMALL_JSON, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void compressedResponseGetsWeakEtagTest() throws Exception {
+        assertEquals("W/" + ETAG, filter(LARGE_JSON, "gzip").getHeader(HttpHeaders.ETAG));
+        assertEquals(ETAG, filter(SMALL_JSON, "gzip").getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void clientWithoutGzipGetsPlainBodyTest() throws Exception {
+        MockHttpServletResponse response = filter(LARGE_JSON, null);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_JSON, response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(0, registry.get("shareit.server.compression").timer().count());
+    }
+
+    private MockHttpServletResponse filter(String json, String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.setHeader(HttpHeaders.ETAG, ETAG);
+                resp.getOutputStream().write(json.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "db.name=test", webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(locations = "classpath:test.properties")
+class DeadlineIntegrationTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void clear() {
+        RequestDeadline.clear();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void requestWithinDeadlineIsServedTest() {
+        User booker = userRepository.save(new User(0L, "booker", "booker@mail.com"));
+        RequestDeadline.start(5_000);
+
+        assertTrue(bookingService.getOwnBookings(booker.getId(), "ALL", 0, 10).isEmpty());
+    }
+
+    @Test
+    void expiredDeadlineAbortsBeforeQueryingTest() throws InterruptedException {
+        User booker = userRepository.save(new User(0L, "booker", "booker@mail.com"));
+        RequestDeadline.start(1);
+        Thread.sleep(5);
+
+        assertThrows(TransactionTimedOutException.class,
+                () -> bookingService.getOwnBookings(booker.getId(), "ALL", 0, 10));
+    }
+
+    @Test
+    void slowQueryIsCancelledAtDeadlineTest() {
+        RequestDeadline.start(1_000);
+        long start = System.nanoTime();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> transactionTemplate.execute(status -> entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM SYSTEM_RANGE(1, 1000000) a, SYSTEM_RANGE(1, 1000000) b")
+                .getSingleResult()));
+        assertTrue(System.nanoTime() - start < 10_000_000_000L);
+        assertTrue(DeadlineErrorHandler.isQueryTimeout(e instanceof TransactionSystemException
+                ? ((TransactionSystemException) e).getApplicationException() : e), e.toString());
+    }
+
+    @Test
+    void transactionTimeoutFollowsDeadlineTest() {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+        transactionManager.setDefaultTimeout(30);
+        RequestDeadline.start(1_500);
+
+        assertEquals(3, transactionManager.determineTimeout(new TransactionTemplate()));
+        RequestDeadline.clear();
+        assertEquals(30, transactionManager.determineTimeout(new TransactionTemplate()));
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.etag;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItTestsConfiguration;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.controller.ItemErrorHandler;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemController.class)
+@ContextConfiguration(classes = {ShareItTestsConfiguration.class})
+@Import({ItemController.class, ItemErrorHandler.class, EtagResponseAdvice.class})
+@TestPropertySource(locations = "classpath:test.properties")
+class EtagResponseAdviceTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+    @MockBean
+    private ItemService itemService;
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    private final ItemDto item = new ItemDto(1L, "Дрель", "Простая дрель", true, null, null, List.of(), null);
+
+    @Test
+    void singleResourceGetsStrongEtagTest() throws Exception {
+        when(itemService.get(1L, 1L)).thenReturn(item);
+
+        String etag = etag("/items/1");
+
+        assertTrue(etag.matches("\"[0-9a-f]{32}\""), etag);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithNotModifiedTest() throws Exception {
+        when(itemService.get(1L, 1L)).thenReturn(item);
+        String etag = etag("/items/1");
+        double notModified = registry.get("shareit.server.not.modified").counter().count();
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(notModified + 1, registry.get("shareit.server.not.modified").counter().count());
+    }
+
+    @Test
+    void changedResourceGetsNewEtagTest() throws Exception {
+        when(itemService.get(1L, 1L)).thenReturn(item);
+        String etag = etag("/items/1");
+        when(itemService.get(1L, 1L)).thenReturn(new ItemDto(1L, "Дрель", "Сломанная дрель", false, null, null,
+                List.of(), null));
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void listGetsWeakEtagTest() throws Exception {
+        when(itemService.getAll(anyLong(), anyInt(), anyInt())).thenReturn(List.of(item));
+        String etag = etag("/items?from=0&size=20");
+        assertTrue(etag.startsWith("W/\""), etag);
+
+        mockMvc.perform(get("/items?from=0&size=20")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void errorResponseHasNoEtagTest() throws Exception {
+        when(itemService.get(anyLong(), anyLong())).thenThrow(new ItemNotFoundException("Не найден предмет с id:2"));
+
+        mockMvc.perform(get("/items/2")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void jsonAndSmileGetDifferentEtagsTest() throws Exception {
+        when(itemService.get(1L, 1L)).thenReturn(item);
+
+        String json = etag("/items/1");
+        String smile = mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(json, smile);
+    }
+
+    private String etag(String uri) throws Exception {
+        return mockMvc.perform(get(uri).header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "db.name=test", webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(locations = "classpath:test.properties")
+class IdempotencyServiceIntegrationTest {
+    private static final String KEY = "7f1b2c9e-5d4a-4e0b-9a63-2f8c1d0e6b57";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void init() {
+        owner = userRepository.save(new User(0L, "owner", "owner@email.com"));
+    }
+
+    @AfterEach
+    void clearDb() {
+        idempotencyRecordRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedRequestIsReplayedTest() {
+        ItemDto first = addItem(KEY, itemDto());
+        ItemDto second = addItem(KEY, itemDto());
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(1, itemRepository.count());
+    }
+
+    @Test
+    void requestsWithoutKeyAreNotDeduplicatedTest() {
+        addItem(null, itemDto());
+        addItem(null, itemDto());
+
+        assertEquals(2, itemRepository.count());
+        assertEquals(0, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestTest() {
+        addItem(KEY, itemDto());
+        ItemDto other = new ItemDto(0L, "item2", "item2 description", true, null, null, null, null);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> addItem(KEY, other));
+        assertEquals(1, itemRepository.count());
+    }
+
+    @Test
+    void tooLongKeyTest() {
+        assertThrows(IdempotencyKeyBadRequestException.class, () -> addItem("k".repeat(65), itemDto()));
+    }
+
+    @Test
+    void failedRequestLeavesNoKeyTest() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(KEY, owner.getId(), "POST /items",
+                itemDto(), ItemDto.class, () -> {
+                    itemService.add(owner.getId(), itemDto());
+                    throw new IllegalStateException();
+                }));
+
+        assertEquals(0, itemRepository.count());
+        assertEquals(0, idempotencyRecordRepository.count());
+        addItem(KEY, itemDto());
+        assertEquals(1, itemRepository.count());
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneItemTest() throws Exception {
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> results = new ArrayList<>();
+        Supplier<ItemDto> slowAdd = () -> {
+            ItemDto added = itemService.add(owner.getId(), itemDto());
+            sleep(200);
+            return added;
+        };
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute(KEY, owner.getId(), "POST /items", itemDto(), ItemDto.class,
+                            slowAdd).getId();
+                }));
+            }
+            start.countDown();
+            for (Future<Long> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, itemRepository.count());
+        long itemId = itemRepository.findAll().get(0).getId();
+        for (Future<Long> result : results) {
+            assertEquals(itemId, result.get());
+        }
+        assertEquals(1, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    void expiredKeysAreRemovedTest() {
+        idempotencyRecordRepository.save(new IdempotencyRecord("old", owner.getId(), "0".repeat(32),
+                LocalDateTime.now().minusDays(2)));
+        addItem(KEY, itemDto());
+
+        idempotencyService.removeExpired();
+
+        assertTrue(idempotencyRecordRepository.findByUserIdAndKey(owner.getId(), "old").isEmpty());
+        assertTrue(idempotencyRecordRepository.findByUserIdAndKey(owner.getId(), KEY).isPresent());
+    }
+
+    private ItemDto addItem(String key, ItemDto item) {
+        return idempotencyService.execute(key, owner.getId(), "POST /items", item, ItemDto.class,
+                () -> itemService.add(owner.getId(), item));
+    }
+
+    // ItemServiceImpl.add fills in the id of the given dto, while a retry always arrives as a fresh one
+    private static ItemDto itemDto() {
+        return new ItemDto(null, "item1", "item1 description", true, null, null, null, null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
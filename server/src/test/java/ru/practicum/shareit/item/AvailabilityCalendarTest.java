@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.availability.AvailabilityCalendar;
+import ru.practicum.shareit.item.availability.AvailabilityCalendar.Interval;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCalendarTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 31, 0, 0);
+
+    private final AvailabilityCalendar calendar = new AvailabilityCalendar();
+
+    @Test
+    void emptyCalendarIsFreeTest() {
+        assertEquals(List.of(new Interval(DAY, DAY.plusDays(40), false)), calendar.intervals(DAY, DAY.plusDays(40)));
+    }
+
+    @Test
+    void partiallyBookedHoursAreBusyTest() {
+        calendar.add(1L, DAY.plusHours(10).plusMinutes(30), DAY.plusHours(12));
+
+        assertEquals(List.of(
+                new Interval(DAY.plusHours(8), DAY.plusHours(10), false),
+                new Interval(DAY.plusHours(10), DAY.plusHours(12), true),
+                new Interval(DAY.plusHours(12), DAY.plusHours(14), false)
+        ), calendar.intervals(DAY.plusHours(8), DAY.plusHours(14)));
+        assertEquals(List.of(new Interval(DAY.plusHours(11).plusMinutes(15), DAY.plusHours(11).plusMinutes(45), true)),
+                calendar.intervals(DAY.plusHours(11).plusMinutes(15), DAY.plusHours(11).plusMinutes(45)));
+    }
+
+    @Test
+    void bookingAcrossMonthsTest() {
+        calendar.add(1L, DAY.plusHours(20), DAY.plusDays(1).plusHours(4));
+        calendar.add(2L, DAY.plusDays(1).plusHours(4), DAY.plusDays(1).plusHours(6));
+
+        assertEquals(List.of(
+                new Interval(DAY, DAY.plusHours(20), false),
+                new Interval(DAY.plusHours(20), DAY.plusDays(1).plusHours(6), true),
+                new Interval(DAY.plusDays(1).plusHours(6), DAY.plusDays(3), false)
+        ), calendar.intervals(DAY, DAY.plusDays(3)));
+    }
+
+    @Test
+    void removingOneOfBookingsSharingHourTest() {
+        calendar.add(1L, DAY.plusHours(10), DAY.plusHours(10).plusMinutes(30));
+        calendar.add(2L, DAY.plusHours(10).plusMinutes(30), DAY.plusHours(11).plusMinutes(30));
+        calendar.add(2L, DAY.plusHours(10).plusMinutes(30), DAY.plusHours(11).plusMinutes(30));
+
+        calendar.remove(2L, DAY.plusHours(10).plusMinutes(30), DAY.plusHours(11).plusMinutes(30));
+
+        assertEquals(1, calendar.size());
+        assertEquals(List.of(
+                new Interval(DAY.plusHours(10), DAY.plusHours(11), true),
+                new Interval(DAY.plusHours(11), DAY.plusHours(12), false)
+        ), calendar.intervals(DAY.plusHours(10), DAY.plusHours(12)));
+
+        calendar.remove(1L, DAY.plusHours(10), DAY.plusHours(10).plusMinutes(30));
+        calendar.remove(1L, DAY.plusHours(10), DAY.plusHours(10).plusMinutes(30));
+
+        assertEquals(List.of(new Interval(DAY, DAY.plusDays(1), false)), calendar.intervals(DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void isFreeTest() {
+        calendar.add(1L, DAY.plusHours(10).plusMinutes(30), DAY.plusHours(12));
+        calendar.add(2L, DAY.plusDays(1).plusHours(3), DAY.plusDays(1).plusHours(4));
+
+        assertTrue(calendar.isFree(DAY, DAY.plusHours(10)));
+        assertFalse(calendar.isFree(DAY, DAY.plusHours(10).plusMinutes(1)));
+        assertTrue(calendar.isFree(DAY.plusHours(12), DAY.plusDays(1).plusHours(3)));
+        assertFalse(calendar.isFree(DAY.plusHours(12), DAY.plusDays(2)));
+        assertTrue(calendar.isFree(DAY.plusDays(1).plusHours(4), DAY.plusDays(60)));
+    }
+
+    @Test
+    void matchesBookingCountAndLastIdTest() {
+        assertTrue(calendar.matches(0, null));
+
+        calendar.add(1L, DAY.plusHours(1), DAY.plusHours(2));
+        calendar.add(3L, DAY.plusHours(3), DAY.plusHours(4));
+
+        assertTrue(calendar.matches(2, 3L));
+        assertFalse(calendar.matches(2, 4L));
+        assertFalse(calendar.matches(1, 3L));
+    }
+}
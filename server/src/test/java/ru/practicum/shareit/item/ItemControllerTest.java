@@ -1,21 +1,27 @@
 package ru.practicum.shareit.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.CommentBadRequestException;
 import ru.practicum.shareit.item.exception.UpdateForbiddenException;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -34,9 +40,17 @@ class ItemControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ItemServiceImpl itemService;
+    @MockBean
+    private IdempotencyService idempotencyService;
     private ItemDto itemDto = new ItemDto(1L, "Item1", "Item1 description", true, null, null, null, null);
     private long uid = 1L;
 
+    @BeforeEach
+    void init() {
+        when(idempotencyService.execute(any(), anyLong(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(5, Supplier.class).get());
+    }
+
     @Test
     void addItemTest() throws Exception {
         when(itemService.add(anyLong(), any(ItemDto.class))).thenReturn(itemDto);
@@ -56,6 +70,23 @@ class ItemControllerTest {
     }
 
 
+    @Test
+    void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 8, 0);
+        LocalDateTime to = from.plusHours(6);
+        when(itemService.getAvailability(1L, from, to)).thenReturn(new ItemAvailabilityDto(1L, from, to,
+                List.of(new AvailabilityIntervalDto(from, from.plusHours(2))),
+                List.of(new AvailabilityIntervalDto(from.plusHours(2), to))));
+
+        mockMvc.perform(get("/items/1/availability?from=2030-01-01T08:00:00&to=2030-01-01T14:00:00")
+                        .header("X-Sharer-User-Id", uid)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.free", hasSize(1)))
+                .andExpect(jsonPath("$.busy[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$.busy[0].end", is("2030-01-01T14:00:00")));
+    }
+
     @Test
     void getItemTest() throws Exception {
         when(itemService.get(anyLong(), anyLong())).thenReturn(itemDto);
@@ -145,6 +176,25 @@ class ItemControllerTest {
         verify(itemService, times(1)).findAvailable("test", 0, 20);
     }
 
+    @Test
+    void searchFreeItemsTest() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 7, 10, 0);
+        when(itemService.findAvailable("test", start, end, 0, 20)).thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search?text=test&start=2030-01-05T10:00:00&end=2030-01-07T10:00:00&from=0&size=20")
+                        .header("X-Sharer-User-Id", uid)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/items/search?text=test&start=2030-01-05T10:00:00&from=0&size=20")
+                        .header("X-Sharer-User-Id", uid))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).findAvailable(anyString(), anyInt(), anyInt());
+    }
+
 
     @Test
     void addCommentTest() throws Exception {
@@ -7,15 +7,28 @@ import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.exception.AvailabilityBadRequestException;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +43,10 @@ class ItemServiceIntegrationTest {
     private ItemServiceImpl itemService;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
 
     private User user = new User(0L, "User", "user@mail.com");
     private Item item1 = new Item(0L, "Item1", "Item1 description", true, user, null);
@@ -63,4 +80,88 @@ class ItemServiceIntegrationTest {
         assertEquals(2, itemDtos.size());
         assertTrue(itemDtos.containsAll(List.of(itemDto1, itemDto2)));
     }
+
+    @Test
+    void getAvailabilityTest() {
+        User booker = userRepository.save(new User(0L, "Booker", "booker@mail.com"));
+        LocalDateTime day = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime from = day.plusHours(8);
+        LocalDateTime to = day.plusHours(14);
+
+        assertEquals(List.of(new AvailabilityIntervalDto(from, to)),
+                itemService.getAvailability(item1.getId(), from, to).getFree());
+
+        BookingDto booking = bookingService.add(booker.getId(), new BookingSimpleDto(null,
+                day.plusHours(10).plusMinutes(30), day.plusHours(12), null, item1.getId(), null));
+        ItemAvailabilityDto availability = itemService.getAvailability(item1.getId(), from, to);
+
+        assertEquals(List.of(new AvailabilityIntervalDto(day.plusHours(10), day.plusHours(12))), availability.getBusy());
+        assertEquals(List.of(new AvailabilityIntervalDto(from, day.plusHours(10)),
+                new AvailabilityIntervalDto(day.plusHours(12), to)), availability.getFree());
+
+        bookingService.approve(booking.getId(), user.getId(), false);
+
+        assertTrue(itemService.getAvailability(item1.getId(), from, to).getBusy().isEmpty());
+    }
+
+    @Test
+    void bookingWrittenOutsideServiceChangesAvailabilityTest() {
+        User booker = userRepository.save(new User(0L, "Booker", "booker@mail.com"));
+        LocalDateTime day = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime from = day.plusHours(8);
+        LocalDateTime to = day.plusHours(14);
+
+        assertTrue(itemService.getAvailability(item1.getId(), from, to).getBusy().isEmpty());
+
+        Booking booking = bookingRepository.save(new Booking(0L, day.plusHours(10), day.plusHours(12), item1, booker,
+                BookingStatus.APPROVED));
+
+        assertEquals(List.of(new AvailabilityIntervalDto(day.plusHours(10), day.plusHours(12))),
+                itemService.getAvailability(item1.getId(), from, to).getBusy());
+
+        bookingRepository.delete(booking);
+
+        assertTrue(itemService.getAvailability(item1.getId(), from, to).getBusy().isEmpty());
+    }
+
+    @Test
+    void getAvailabilityWithInvalidRequestTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.getAvailability(-1L, now, now.plusDays(1)));
+        assertThrows(AvailabilityBadRequestException.class,
+                () -> itemService.getAvailability(item1.getId(), now, now));
+        assertThrows(AvailabilityBadRequestException.class,
+                () -> itemService.getAvailability(item1.getId(), now, now.plusYears(2)));
+    }
+
+    @Test
+    void findFreeItemsTest() {
+        User booker = userRepository.save(new User(0L, "Booker", "booker@mail.com"));
+        LocalDateTime day = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+        bookingService.add(booker.getId(), new BookingSimpleDto(null,
+                day.plusHours(10), day.plusHours(12), null, item1.getId(), null));
+
+        Collection<ItemDto> free = itemService.findAvailable("description", day.plusHours(11), day.plusHours(13), 0, 1);
+        Collection<ItemDto> later = itemService.findAvailable("description", day.plusHours(12), day.plusHours(13), 0, 20);
+
+        assertEquals(List.of(item2.getId()), free.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(item1.getId(), item2.getId()), later.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertTrue(itemService.findAvailable("description", day.plusHours(11), day.plusHours(13), 1, 1).isEmpty());
+    }
+
+    @Test
+    void findFreeItemsSeesBookingWrittenOutsideServiceTest() {
+        User booker = userRepository.save(new User(0L, "Booker", "booker@mail.com"));
+        LocalDateTime day = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS);
+
+        assertEquals(2, itemService.findAvailable("description", day.plusHours(11), day.plusHours(13), 0, 20).size());
+
+        bookingRepository.save(new Booking(0L, day.plusHours(12).plusMinutes(30), day.plusHours(14), item2, booker,
+                BookingStatus.WAITING));
+        Collection<ItemDto> free = itemService.findAvailable("description", day.plusHours(11),
+                day.plusHours(12).plusMinutes(10), 0, 20);
+
+        assertEquals(List.of(item1.getId()), free.stream().map(ItemDto::getId).collect(Collectors.toList()));
+    }
 }
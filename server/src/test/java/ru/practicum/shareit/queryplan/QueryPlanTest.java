@@ -0,0 +1,299 @@
+package ru.practicum.shareit.queryplan;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.idempotency.IdempotencyRecordRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on a seeded dataset for the SQL Hibernate generates from every repository query
+ * that selects by a key, and fails if a plan falls back to a full table scan. Queries that read a
+ * whole table (UserRepository.findAllIds) or match substrings (item text search) are not covered.
+ */
+@SpringBootTest(properties = {"db.name=test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.queryplan.QueryPlanTest$SqlCapture"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(locations = "classpath:test.properties")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final int USERS = 100;
+    private static final int ITEMS_PER_USER = 10;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int REQUESTS_PER_USER = 2;
+    private static final int COMMENTS_PER_ITEM = 2;
+
+    private static final String FULL_SCAN = "tableScan";
+
+    private static final String BY_BOOKER = index("BOOKINGS_\\w+", "USER_ID = ?1");
+    private static final String BY_BOOKER_BEFORE = index("BOOKINGS_BOOKER_START_IDX", "USER_ID = ?1", "START_TIME <= ?2");
+    private static final String OWNER_ITEMS = index("ITEMS_\\w+", "USER_ID = ?1");
+    private static final String BY_OWNER = index("BOOKINGS_\\w+", "ITEM_ID = ITEM1_.ID");
+    private static final String BY_OWNER_BEFORE = index("BOOKINGS_ITEM_START_IDX", "ITEM_ID = ITEM1_.ID", "START_TIME <= ?2");
+    private static final String BY_ITEM = index("BOOKINGS_\\w+", "ITEM_ID = ?1");
+    private static final String BY_ITEMS = index("BOOKINGS_\\w+", "ITEM_ID IN(");
+
+    // H2 indexes every foreign key on its own, PostgreSQL does not, so the plans alone can't tell these are gone
+    private static final Map<String, List<String>> INDEXES = Map.of(
+            "BOOKINGS_BOOKER_START_IDX", List.of("USER_ID", "START_TIME", "ID"),
+            "BOOKINGS_ITEM_START_IDX", List.of("ITEM_ID", "START_TIME", "ID"),
+            "ITEMS_OWNER_IDX", List.of("USER_ID", "ID"),
+            "ITEMS_REQUEST_IDX", List.of("REQUEST_ID"),
+            "COMMENTS_ITEM_IDX", List.of("ITEM_ID"),
+            "ITEM_REQUESTS_REQUESTOR_CREATED_IDX", List.of("USER_ID", "CREATED"),
+            "ITEM_REQUESTS_CREATED_IDX", List.of("CREATED"),
+            "IDEMPOTENCY_KEYS_CREATED_IDX", List.of("CREATED")
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private long userId;
+    private long itemId;
+    private long requestId;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", IntStream.range(0, USERS)
+                .mapToObj(i -> new Object[]{"user" + i, "plan" + i + "@email.com"})
+                .collect(Collectors.toList()));
+        List<Long> users = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        userId = users.get(0);
+
+        List<Object[]> requests = new ArrayList<>();
+        users.forEach(user -> IntStream.range(0, REQUESTS_PER_USER)
+                .forEach(i -> requests.add(new Object[]{"request" + i, user, Timestamp.valueOf(now.minusDays(i))})));
+        jdbcTemplate.batchUpdate("INSERT INTO item_requests (description, user_id, created) VALUES (?, ?, ?)", requests);
+        List<Long> requestIds = jdbcTemplate.queryForList("SELECT id FROM item_requests ORDER BY id", Long.class);
+        requestId = requestIds.get(0);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            for (int j = 0; j < ITEMS_PER_USER; j++) {
+                items.add(new Object[]{"item" + j, "description" + j, true, users.get(i), j == 0 ? requestIds.get(i) : null});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, user_id, request_id) VALUES (?, ?, ?, ?, ?)",
+                items);
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM items ORDER BY id", Long.class);
+        itemId = itemIds.get(0);
+
+        String[] statuses = {"APPROVED", "WAITING", "REJECTED", "CANCELED"};
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                LocalDateTime start = now.plusDays(j - BOOKINGS_PER_ITEM / 2);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)), itemIds.get(i),
+                        users.get((i + j + 1) % users.size()), statuses[j % statuses.length]});
+            }
+            for (int j = 0; j < COMMENTS_PER_ITEM; j++) {
+                comments.add(new Object[]{"comment" + j, itemIds.get(i), users.get((i + j + 1) % users.size()),
+                        Timestamp.valueOf(now)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_time, end_time, item_id, user_id, status) VALUES (?, ?, ?, ?, ?)",
+                bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (text, item_id, user_id, created) VALUES (?, ?, ?, ?)", comments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void clearDb() {
+        List.of("comments", "bookings", "items", "item_requests", "users")
+                .forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+    }
+
+    @Test
+    void indexSetTest() {
+        INDEXES.forEach((index, columns) -> assertEquals(columns, jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.index_columns WHERE index_name = ? ORDER BY ordinal_position",
+                String.class, index), index));
+    }
+
+    @Test
+    void repositoryQueriesUseIndexesTest() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 20);
+        long id = Long.MAX_VALUE;
+
+        assertAll(Stream.of(
+                uses("findAllPastByBooker", () -> bookingRepository.findAllPastByBooker(userId, page), BY_BOOKER),
+                uses("findAllCurrentByBooker", () -> bookingRepository.findAllCurrentByBooker(userId, page), BY_BOOKER),
+                uses("findAllFutureByBooker", () -> bookingRepository.findAllFutureByBooker(userId, page), BY_BOOKER),
+                uses("findAllWaitingByBooker", () -> bookingRepository.findAllWaitingByBooker(userId, page), BY_BOOKER),
+                uses("findAllRejectedByBooker", () -> bookingRepository.findAllRejectedByBooker(userId, page), BY_BOOKER),
+                uses("findAllByBooker", () -> bookingRepository.findAllByBooker(userId, page), BY_BOOKER),
+                uses("findAllByBooker unpaged", () -> bookingRepository.findAllByBooker(userId), BY_BOOKER),
+                uses("findAllPastByBookerBefore",
+                        () -> bookingRepository.findAllPastByBookerBefore(userId, now, id, page), BY_BOOKER_BEFORE),
+                uses("findAllCurrentByBookerBefore",
+                        () -> bookingRepository.findAllCurrentByBookerBefore(userId, now, id, page), BY_BOOKER_BEFORE),
+                uses("findAllFutureByBookerBefore",
+                        () -> bookingRepository.findAllFutureByBookerBefore(userId, now, id, page), BY_BOOKER_BEFORE),
+                uses("findAllWaitingByBookerBefore",
+                        () -> bookingRepository.findAllWaitingByBookerBefore(userId, now, id, page), BY_BOOKER_BEFORE),
+                uses("findAllRejectedByBookerBefore",
+                        () -> bookingRepository.findAllRejectedByBookerBefore(userId, now, id, page), BY_BOOKER_BEFORE),
+                uses("findAllByBookerBefore",
+                        () -> bookingRepository.findAllByBookerBefore(userId, now, id, page), BY_BOOKER_BEFORE),
+                uses("findAllPastByOwner", () -> bookingRepository.findAllPastByOwner(userId, page), OWNER_ITEMS, BY_OWNER),
+                uses("findAllCurrentByOwner", () -> bookingRepository.findAllCurrentByOwner(userId, page), OWNER_ITEMS, BY_OWNER),
+                uses("findAllFutureByOwner", () -> bookingRepository.findAllFutureByOwner(userId, page), OWNER_ITEMS, BY_OWNER),
+                uses("findAllWaitingByOwner", () -> bookingRepository.findAllWaitingByOwner(userId, page), OWNER_ITEMS, BY_OWNER),
+                uses("findAllRejectedByOwner", () -> bookingRepository.findAllRejectedByOwner(userId, page), OWNER_ITEMS, BY_OWNER),
+                uses("findAllByOwner", () -> bookingRepository.findAllByOwner(userId, page), OWNER_ITEMS, BY_OWNER),
+                uses("findAllByItemOwnerIdOrderByStartDesc",
+                        () -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId), OWNER_ITEMS, BY_OWNER),
+                uses("findAllPastByOwnerBefore",
+                        () -> bookingRepository.findAllPastByOwnerBefore(userId, now, id, page), OWNER_ITEMS, BY_OWNER_BEFORE),
+                uses("findAllCurrentByOwnerBefore",
+                        () -> bookingRepository.findAllCurrentByOwnerBefore(userId, now, id, page), OWNER_ITEMS, BY_OWNER_BEFORE),
+                uses("findAllFutureByOwnerBefore",
+                        () -> bookingRepository.findAllFutureByOwnerBefore(userId, now, id, page), OWNER_ITEMS, BY_OWNER_BEFORE),
+                uses("findAllWaitingByOwnerBefore",
+                        () -> bookingRepository.findAllWaitingByOwnerBefore(userId, now, id, page), OWNER_ITEMS, BY_OWNER_BEFORE),
+                uses("findAllRejectedByOwnerBefore",
+                        () -> bookingRepository.findAllRejectedByOwnerBefore(userId, now, id, page), OWNER_ITEMS, BY_OWNER_BEFORE),
+                uses("findAllByOwnerBefore",
+                        () -> bookingRepository.findAllByOwnerBefore(userId, now, id, page), OWNER_ITEMS, BY_OWNER_BEFORE),
+                uses("findAllPastByOwnerAndItem",
+                        () -> bookingRepository.findAllPastByOwnerAndItem(userId, itemId, page), BY_ITEM),
+                uses("findAllCurrentByOwnerAndItem",
+                        () -> bookingRepository.findAllCurrentByOwnerAndItem(userId, itemId, page), BY_ITEM),
+                uses("findAllFutureByOwnerAndItem",
+                        () -> bookingRepository.findAllFutureByOwnerAndItem(userId, itemId, page), BY_ITEM),
+                uses("findAllWaitingByOwnerAndItem",
+                        () -> bookingRepository.findAllWaitingByOwnerAndItem(userId, itemId, page), BY_ITEM),
+                uses("findAllRejectedByOwnerAndItem",
+                        () -> bookingRepository.findAllRejectedByOwnerAndItem(userId, itemId, page), BY_ITEM),
+                uses("findAllByOwnerAndItem",
+                        () -> bookingRepository.findAllByOwnerAndItem(userId, itemId, page), BY_ITEM),
+                uses("findAllByItemIdIn", () -> bookingRepository.findAllByItemIdIn(List.of(itemId, itemId + 1)), BY_ITEMS),
+                uses("findAllByItemId", () -> bookingRepository.findAllByItemId(itemId), BY_ITEM),
+                uses("findAllActivePeriodsByItemIdIn",
+                        () -> bookingRepository.findAllActivePeriodsByItemIdIn(List.of(itemId, itemId + 1)), BY_ITEMS),
+                uses("findActiveStampByItemId", () -> bookingRepository.findActiveStampByItemId(itemId), BY_ITEM),
+                uses("findOverlappingIds",
+                        () -> bookingRepository.findOverlappingIds(itemId, now, now.plusDays(1), PageRequest.of(0, 1)),
+                        index("BOOKINGS_ITEM_START_IDX", "ITEM_ID = ?1", "START_TIME < ?2")),
+                uses("findAllByUserId", () -> itemRepository.findAllByUserId(userId), OWNER_ITEMS),
+                uses("findAllByUserId paged", () -> itemRepository.findAllByUserId(userId, page), OWNER_ITEMS),
+                uses("findAllAvailableFreeByText",
+                        () -> itemRepository.findAllAvailableFreeByText("item", now, now.plusDays(1), page),
+                        index("BOOKINGS_\\w+", "ITEM_ID = ")),
+                uses("findAllByRequestIdIn", () -> itemRepository.findAllByRequestIdIn(List.of(requestId)),
+                        index("ITEMS_\\w+", "REQUEST_ID = ?1")),
+                uses("lockById", () -> transactionTemplate.executeWithoutResult(status -> itemRepository.lockById(itemId)),
+                        index("PRIMARY_KEY_\\w+", "ID = ?1")),
+                uses("comment findAllByItemId", () -> commentRepository.findAllByItemId(itemId),
+                        index("COMMENTS_\\w+", "ITEM_ID = ?1")),
+                uses("comment findAllByItemIdIn", () -> commentRepository.findAllByItemIdIn(List.of(itemId, itemId + 1)),
+                        index("COMMENTS_\\w+", "ITEM_ID IN(")),
+                uses("findAllByRequestorIdOrderByCreatedDesc",
+                        () -> itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(userId),
+                        index("ITEM_REQUESTS_\\w+", "USER_ID = ?1")),
+                uses("findAllByRequestorIdNotOrderByCreatedDesc",
+                        () -> itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(userId, page),
+                        "/\\* PUBLIC\\.ITEM_REQUESTS_CREATED_IDX \\*/.*/\\* index sorted \\*/"),
+                uses("findByUserIdAndKey", () -> idempotencyRecordRepository.findByUserIdAndKey(userId, "key"),
+                        index("IDEMPOTENCY_KEYS_\\w+", "USER_ID = ?1", "IDEMPOTENCY_KEY = ?2")),
+                uses("deleteAllCreatedBefore",
+                        () -> transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteAllCreatedBefore(now)),
+                        index("IDEMPOTENCY_KEYS_CREATED_IDX", "CREATED < ?1"))
+        ));
+    }
+
+    // Every statement the call issues, lazy and eager loads included, must avoid a full scan
+    private Executable uses(String query, Runnable call, String... expected) {
+        return () -> {
+            SqlCapture.STATEMENTS.clear();
+            call.run();
+            List<String> plans = SqlCapture.STATEMENTS.stream()
+                    .map(this::explain)
+                    .collect(Collectors.toList());
+
+            assertFalse(plans.isEmpty(), query);
+            plans.forEach(plan -> assertFalse(plan.contains(FULL_SCAN), query + ": " + plan));
+            for (String regex : expected) {
+                Pattern pattern = Pattern.compile(regex);
+                assertTrue(plans.stream().anyMatch(plan -> pattern.matcher(plan).find()), query + ": " + plans);
+            }
+        };
+    }
+
+    // Matches the H2 plan comment of an index lookup on all the given conditions, in any order
+    private static String index(String name, String... conditions) {
+        StringBuilder regex = new StringBuilder("/\\* PUBLIC\\.").append(name).append(':');
+        for (String condition : conditions) {
+            regex.append("(?=[^*]*").append(Pattern.quote(condition)).append(')');
+        }
+        return regex.toString();
+    }
+
+    // H2 plans a statement when it is prepared, so the parameter values don't change the plan
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) statement -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1).replaceAll("\\s+", " ");
+            }
+        });
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
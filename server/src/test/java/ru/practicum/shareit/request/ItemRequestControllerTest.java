@@ -1,12 +1,14 @@
 package ru.practicum.shareit.request;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.request.controller.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
@@ -15,6 +17,7 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,10 +36,18 @@ class ItemRequestControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ItemRequestServiceImpl itemRequestService;
+    @MockBean
+    private IdempotencyService idempotencyService;
 
     private ItemRequestDto requestDto = new ItemRequestDto(0L, "request description", LocalDateTime.now(), null);
     private long uid = 1L;
 
+    @BeforeEach
+    void init() {
+        when(idempotencyService.execute(any(), anyLong(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(5, Supplier.class).get());
+    }
+
     @Test
     void addItemRequestWithWrongUidTest() throws Exception {
         when(itemRequestService.add(anyLong(), any(ItemRequestDto.class))).thenThrow(new UserNotFoundException("User not found"));
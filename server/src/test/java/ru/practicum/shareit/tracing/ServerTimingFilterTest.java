@@ -0,0 +1,91 @@
+package ru.practicum.shareit.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+    private static final String JSON = "{\"id\":1,\"name\":\"user\"}";
+
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+    private final TimedModelMapper modelMapper = new TimedModelMapper();
+
+    @Test
+    void phasesAreReportedTest() throws Exception {
+        MockHttpServletResponse response = filter(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServerTiming.dbExecuted(TimeUnit.MILLISECONDS.toNanos(2));
+                modelMapper.map(new User(1L, "user", "user@email.com"), UserDto.class);
+                ServerTiming.serializationStarted();
+                resp.getOutputStream().write(JSON.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        Map<String, Double> timing = parse(response.getHeader(ServerTiming.HEADER));
+        assertEquals(2.0, timing.get("db"));
+        assertTrue(timing.get("mapping") > 0);
+        assertTrue(timing.containsKey("serialization"));
+        assertTrue(timing.get("app") >= timing.get("db") + timing.get("mapping"));
+        assertEquals(JSON, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sqlRunDuringMappingIsCountedAsDbTest() throws Exception {
+        MockHttpServletResponse response = filter(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                long start = ServerTiming.mappingStarted();
+                long lazyLoad = System.nanoTime();
+                sleep(50);
+                ServerTiming.dbExecuted(System.nanoTime() - lazyLoad);
+                ServerTiming.mappingFinished(start);
+            }
+        });
+
+        Map<String, Double> timing = parse(response.getHeader(ServerTiming.HEADER));
+        assertTrue(timing.get("db") >= 50);
+        assertTrue(timing.get("mapping") < 10);
+        assertFalse(timing.containsKey("serialization"));
+    }
+
+    @Test
+    void mappingOutsideRequestIsIgnoredTest() {
+        assertEquals("user", modelMapper.map(new User(1L, "user", "user@email.com"), UserDto.class).getName());
+    }
+
+    private MockHttpServletResponse filter(HttpServlet servlet) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/1"), response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static Map<String, Double> parse(String header) {
+        return Arrays.stream(header.split(", "))
+                .map(entry -> entry.split(";dur="))
+                .collect(Collectors.toMap(entry -> entry[0], entry -> Double.parseDouble(entry[1])));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceIdFilterTest {
+    private final TraceIdFilter filter = new TraceIdFilter();
+
+    @Test
+    void forwardedTraceIdIsLoggedTest() throws Exception {
+        AtomicReference<String> logged = new AtomicReference<>();
+
+        MockHttpServletResponse response = filter("4bf92f3577b34da6a3ce929d0e0e4736", logged);
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", logged.get());
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", response.getHeader(TraceIdFilter.TRACE_ID_HEADER));
+        assertNull(MDC.get(TraceIdFilter.TRACE_ID_MDC_KEY));
+    }
+
+    @Test
+    void missingOrInvalidTraceIdIsReplacedTest() throws Exception {
+        AtomicReference<String> logged = new AtomicReference<>();
+
+        filter(null, logged);
+        assertTrue(logged.get().matches("[0-9a-f]{32}"));
+
+        filter("bad id\r\nX-Injected: 1", logged);
+        assertTrue(logged.get().matches("[0-9a-f]{32}"));
+    }
+
+    private MockHttpServletResponse filter(String traceId, AtomicReference<String> logged) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        if (traceId != null) {
+            request.addHeader(TraceIdFilter.TRACE_ID_HEADER, traceId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                logged.set(MDC.get(TraceIdFilter.TRACE_ID_MDC_KEY));
+            }
+        }));
+        return response;
+    }
+}
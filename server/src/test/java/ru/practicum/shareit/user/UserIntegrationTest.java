@@ -16,6 +16,8 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -142,6 +144,14 @@ class UserIntegrationTest {
         assertEquals(2, users.size(), "Должено быть 2 пользователя");
     }
 
+    @Test
+    @Order(10)
+    void getAllUserIdsTest() {
+        List<Long> ids = userService.getAll().stream().map(UserDto::getId).sorted().collect(Collectors.toList());
+
+        assertEquals(ids, List.copyOf(userService.getAllIds()));
+    }
+
     @Test
     @Order(11)
     void getUserWithInvalidIdTest() {
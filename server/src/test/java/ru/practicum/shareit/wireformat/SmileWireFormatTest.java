@@ -0,0 +1,110 @@
+package ru.practicum.shareit.wireformat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItTestsConfiguration;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSimpleDto;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class)
+@ContextConfiguration(classes = {ShareItTestsConfiguration.class})
+@Import({BookingController.class, SmileWireFormatConfigurer.class})
+@TestPropertySource(locations = "classpath:test.properties")
+class SmileWireFormatTest {
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private BookingServiceImpl bookingService;
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final BookingDto bookingDto = new BookingDto(1L, LocalDateTime.of(2030, 1, 1, 10, 0),
+            LocalDateTime.of(2030, 1, 2, 10, 0), new ItemDto(1L, "Дрель", "Простая дрель", true,
+            null, null, List.of(), null), new UserDto(2L, "booker", "booker@email.com"), "APPROVED");
+
+    @Test
+    void smileResponseMatchesJsonTest() throws Exception {
+        when(bookingService.getOwnBookings(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(List.of(bookingDto));
+
+        byte[] smile = mockMvc.perform(get("/bookings?state=ALL&from=0&size=10")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(SMILE, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/bookings?state=ALL&from=0&size=10")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode fromSmile = smileMapper.readTree(smile);
+        assertEquals(mapper.readTree(json), fromSmile);
+        assertEquals("2030-01-01T10:00:00", fromSmile.get(0).get("start").asText());
+    }
+
+    @Test
+    void clientWithoutPreferenceGetsJsonTest() throws Exception {
+        when(bookingService.getOwnBookings(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings?state=ALL&from=0&size=10")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void smileRequestBodyTest() throws Exception {
+        BookingSimpleDto bookingSimpleDto = new BookingSimpleDto(null, LocalDateTime.of(2030, 1, 1, 10, 0),
+                LocalDateTime.of(2030, 1, 2, 10, 0), null, 1L, null);
+        when(bookingService.add(anyLong(), any())).thenReturn(bookingDto);
+        when(idempotencyService.execute(any(), anyLong(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(5, Supplier.class).get());
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 2)
+                        .content(smileMapper.writeValueAsBytes(mapper.valueToTree(bookingSimpleDto)))
+                        .contentType(SMILE)
+                        .accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE));
+
+        verify(bookingService).add(2L, bookingSimpleDto);
+    }
+}